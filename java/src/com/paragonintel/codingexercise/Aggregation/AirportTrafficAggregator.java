@@ -0,0 +1,153 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Flight.PlaneTrackerListener;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class maintains live traffic figures per airport as PlaneTrackers detect
+ * departures and arrivals: per-minute (tumbling) and last-N-minute (sliding) counts, distinct aircraft
+ * counts (HyperLogLog), and the busiest airports (Space-Saving). Every structure is fixed in size, so
+ * memory use doesn't grow with the traffic volume.
+ *
+ * Windows are based on the event timestamps rather than the wall clock, and 'now' is the latest
+ * minute any departure/arrival has been seen in. All methods are synchronized, so the aggregates can
+ * be queried or flushed from another thread while events are being processed.
+ *
+ * Totals and distinct aircraft counts don't depend on the order departures/arrivals are recorded in.
+ * The sliding windows (which drop minutes older than the latest seen) and the busiest airports (once
+ * more than BUSIEST_AIRPORTS_CAPACITY airports have been seen) do, so two feeds of the same flights
+ * in different orders can report slightly different figures for those.
+ */
+public class AirportTrafficAggregator implements PlaneTrackerListener {
+
+    private static final long MINUTE_MS = 60 * 1000L;
+
+    // Number of minutes of per-minute counts kept for each airport
+    private static final int WINDOW_MINUTES = 60;
+
+    // Number of airports tracked by the busiest-airports sketch
+    private static final int BUSIEST_AIRPORTS_CAPACITY = 64;
+
+    private final Map<String, AirportTrafficWindow> windowsByAirport;
+    private final SpaceSavingSketch busiestAirports;
+    private long latestMinute;
+
+    public AirportTrafficAggregator() {
+        this.windowsByAirport = new HashMap<>();
+        this.busiestAirports = new SpaceSavingSketch(BUSIEST_AIRPORTS_CAPACITY);
+        this.latestMinute = Long.MIN_VALUE;
+    }
+
+    @Override
+    public synchronized void onFlightDeparted(Flight flight) {
+        record(flight.getAircraftIdentifier(), flight.getDepartureAirport(), flight.getDepartureTime(), true);
+    }
+
+    @Override
+    public synchronized void onFlightCompleted(Flight flight) {
+        record(flight.getAircraftIdentifier(), flight.getArrivalAirport(), flight.getArrivalTime(), false);
+    }
+
+    /**
+     * Returns the number of departures from the airport in the minute containing the given time.
+     */
+    public synchronized int getDepartures(String airportId, Date time) {
+        AirportTrafficWindow window = windowsByAirport.get(airportId);
+        return (window == null || time == null) ? 0 : window.getDepartures(toMinute(time.getTime()));
+    }
+
+    /**
+     * Returns the number of arrivals at the airport in the minute containing the given time.
+     */
+    public synchronized int getArrivals(String airportId, Date time) {
+        AirportTrafficWindow window = windowsByAirport.get(airportId);
+        return (window == null || time == null) ? 0 : window.getArrivals(toMinute(time.getTime()));
+    }
+
+    /**
+     * Returns the number of departures from the airport in the last 'minutes' minutes (at most WINDOW_MINUTES).
+     */
+    public synchronized int getRecentDepartures(String airportId, int minutes) {
+        AirportTrafficWindow window = windowsByAirport.get(airportId);
+        return (window == null) ? 0 : window.getDepartures(latestMinute, minutes);
+    }
+
+    /**
+     * Returns the number of arrivals at the airport in the last 'minutes' minutes (at most WINDOW_MINUTES).
+     */
+    public synchronized int getRecentArrivals(String airportId, int minutes) {
+        AirportTrafficWindow window = windowsByAirport.get(airportId);
+        return (window == null) ? 0 : window.getArrivals(latestMinute, minutes);
+    }
+
+    /**
+     * Returns the estimated number of distinct aircraft that have departed from or arrived at the airport.
+     */
+    public synchronized long getDistinctAircraft(String airportId) {
+        AirportTrafficWindow window = windowsByAirport.get(airportId);
+        return (window == null) ? 0 : window.getDistinctAircraft();
+    }
+
+    /**
+     * Returns the busiest airports by departures + arrivals, busiest first.
+     */
+    public synchronized List<SpaceSavingSketch.Entry> getBusiestAirports(int limit) {
+        return busiestAirports.getTop(limit);
+    }
+
+    /**
+     * Returns a report of the current aggregates, without clearing them.
+     */
+    public synchronized AirportTrafficReport getReport() {
+        List<AirportTrafficSummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, AirportTrafficWindow> entry : windowsByAirport.entrySet()) {
+            AirportTrafficWindow window = entry.getValue();
+            summaries.add(new AirportTrafficSummary(
+                    entry.getKey(),
+                    window.getDepartures(latestMinute),
+                    window.getArrivals(latestMinute),
+                    window.getDepartures(latestMinute, WINDOW_MINUTES),
+                    window.getArrivals(latestMinute, WINDOW_MINUTES),
+                    window.getTotalDepartures(),
+                    window.getTotalArrivals(),
+                    window.getDistinctAircraft()
+            ));
+        }
+        summaries.sort((a, b) -> a.getAirport().compareTo(b.getAirport()));
+
+        Date asOf = (latestMinute == Long.MIN_VALUE) ? null : new Date(latestMinute * MINUTE_MS);
+        return new AirportTrafficReport(asOf, WINDOW_MINUTES, busiestAirports.getTop(BUSIEST_AIRPORTS_CAPACITY), summaries);
+    }
+
+    /**
+     * Returns a report of the current aggregates, and then clears them so counting starts over.
+     */
+    public synchronized AirportTrafficReport flush() {
+        AirportTrafficReport report = getReport();
+        windowsByAirport.clear();
+        busiestAirports.clear();
+        return report;
+    }
+
+    private void record(String aircraftId, String airportId, Date time, boolean departure) {
+        if (aircraftId == null || airportId == null || time == null) return;
+
+        long minute = toMinute(time.getTime());
+        latestMinute = Math.max(latestMinute, minute);
+
+        windowsByAirport
+                .computeIfAbsent(airportId, a -> new AirportTrafficWindow(WINDOW_MINUTES))
+                .record(minute, latestMinute, aircraftId, departure);
+        busiestAirports.add(airportId);
+    }
+
+    private static long toMinute(long timeMs) {
+        return Math.floorDiv(timeMs, MINUTE_MS);
+    }
+}
@@ -0,0 +1,38 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Snapshot of all of the traffic aggregates at a point in (stream) time, suitable for serializing.
+ */
+public class AirportTrafficReport {
+    private final Date asOf;
+    private final int slidingWindowMinutes;
+    private final List<SpaceSavingSketch.Entry> busiestAirports;
+    private final List<AirportTrafficSummary> airports;
+
+    AirportTrafficReport(Date asOf, int slidingWindowMinutes,
+                         List<SpaceSavingSketch.Entry> busiestAirports, List<AirportTrafficSummary> airports) {
+        this.asOf = asOf;
+        this.slidingWindowMinutes = slidingWindowMinutes;
+        this.busiestAirports = busiestAirports;
+        this.airports = airports;
+    }
+
+    public Date getAsOf() {
+        return this.asOf;
+    }
+
+    public int getSlidingWindowMinutes() {
+        return this.slidingWindowMinutes;
+    }
+
+    public List<SpaceSavingSketch.Entry> getBusiestAirports() {
+        return this.busiestAirports;
+    }
+
+    public List<AirportTrafficSummary> getAirports() {
+        return this.airports;
+    }
+}
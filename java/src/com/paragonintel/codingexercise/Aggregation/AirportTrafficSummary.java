@@ -0,0 +1,60 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+/**
+ * Point-in-time traffic figures for a single airport, as produced by AirportTrafficAggregator.
+ */
+public class AirportTrafficSummary {
+    private final String airport;
+    private final int departuresLatestMinute;
+    private final int arrivalsLatestMinute;
+    private final int departuresSlidingWindow;
+    private final int arrivalsSlidingWindow;
+    private final long totalDepartures;
+    private final long totalArrivals;
+    private final long distinctAircraft;
+
+    AirportTrafficSummary(String airport, int departuresLatestMinute, int arrivalsLatestMinute,
+                          int departuresSlidingWindow, int arrivalsSlidingWindow,
+                          long totalDepartures, long totalArrivals, long distinctAircraft) {
+        this.airport = airport;
+        this.departuresLatestMinute = departuresLatestMinute;
+        this.arrivalsLatestMinute = arrivalsLatestMinute;
+        this.departuresSlidingWindow = departuresSlidingWindow;
+        this.arrivalsSlidingWindow = arrivalsSlidingWindow;
+        this.totalDepartures = totalDepartures;
+        this.totalArrivals = totalArrivals;
+        this.distinctAircraft = distinctAircraft;
+    }
+
+    public String getAirport() {
+        return this.airport;
+    }
+
+    public int getDeparturesLatestMinute() {
+        return this.departuresLatestMinute;
+    }
+
+    public int getArrivalsLatestMinute() {
+        return this.arrivalsLatestMinute;
+    }
+
+    public int getDeparturesSlidingWindow() {
+        return this.departuresSlidingWindow;
+    }
+
+    public int getArrivalsSlidingWindow() {
+        return this.arrivalsSlidingWindow;
+    }
+
+    public long getTotalDepartures() {
+        return this.totalDepartures;
+    }
+
+    public long getTotalArrivals() {
+        return this.totalArrivals;
+    }
+
+    public long getDistinctAircraft() {
+        return this.distinctAircraft;
+    }
+}
@@ -0,0 +1,98 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps per-minute departure/arrival counts for a single airport,
+ * along with an estimate of the distinct aircraft seen there. Minutes are kept in a ring buffer,
+ * so the memory used is fixed: a slot is reused once its minute falls out of the window.
+ *
+ * This class is not thread-safe on its own; AirportTrafficAggregator guards access to it.
+ */
+class AirportTrafficWindow {
+
+    private final long[] slotMinutes; // The minute each slot currently holds counts for
+    private final int[] departures;
+    private final int[] arrivals;
+    private final HyperLogLog distinctAircraft;
+
+    private long totalDepartures;
+    private long totalArrivals;
+
+    AirportTrafficWindow(int windowMinutes) {
+        this.slotMinutes = new long[windowMinutes];
+        this.departures = new int[windowMinutes];
+        this.arrivals = new int[windowMinutes];
+        this.distinctAircraft = new HyperLogLog();
+        Arrays.fill(slotMinutes, Long.MIN_VALUE);
+    }
+
+    /**
+     * Records a departure (or arrival) in the given minute. If the minute is too old to still be
+     * held in the ring buffer, it only counts towards the totals and distinct aircraft.
+     */
+    void record(long minute, long latestMinute, String aircraftId, boolean departure) {
+        if (departure) totalDepartures += 1;
+        else totalArrivals += 1;
+        distinctAircraft.add(aircraftId);
+
+        if (latestMinute - minute >= slotMinutes.length) return;
+
+        int slot = getSlot(minute);
+        if (slotMinutes[slot] != minute) {
+            slotMinutes[slot] = minute;
+            departures[slot] = 0;
+            arrivals[slot] = 0;
+        }
+        if (departure) departures[slot] += 1;
+        else arrivals[slot] += 1;
+    }
+
+    int getDepartures(long minute) {
+        int slot = getSlot(minute);
+        return (slotMinutes[slot] == minute) ? departures[slot] : 0;
+    }
+
+    int getArrivals(long minute) {
+        int slot = getSlot(minute);
+        return (slotMinutes[slot] == minute) ? arrivals[slot] : 0;
+    }
+
+    /**
+     * Sums the departures over the 'minutes' minutes ending with (and including) endMinute.
+     */
+    int getDepartures(long endMinute, int minutes) {
+        int sum = 0;
+        for (long minute = endMinute - Math.min(minutes, slotMinutes.length) + 1; minute <= endMinute; minute++) {
+            sum += getDepartures(minute);
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the arrivals over the 'minutes' minutes ending with (and including) endMinute.
+     */
+    int getArrivals(long endMinute, int minutes) {
+        int sum = 0;
+        for (long minute = endMinute - Math.min(minutes, slotMinutes.length) + 1; minute <= endMinute; minute++) {
+            sum += getArrivals(minute);
+        }
+        return sum;
+    }
+
+    long getTotalDepartures() {
+        return this.totalDepartures;
+    }
+
+    long getTotalArrivals() {
+        return this.totalArrivals;
+    }
+
+    long getDistinctAircraft() {
+        return distinctAircraft.estimate();
+    }
+
+    private int getSlot(long minute) {
+        return (int) Math.floorMod(minute, (long) slotMinutes.length);
+    }
+}
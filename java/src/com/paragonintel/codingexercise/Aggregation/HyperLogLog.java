@@ -0,0 +1,70 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates the number of distinct Strings seen, using a fixed
+ * amount of memory no matter how many are added. Each String is hashed, the first PRECISION bits
+ * choose a register, and the register keeps the longest run of leading zeros seen in the rest of
+ * the hash. With 2^10 registers the standard error is about 3%.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 10;
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+
+    // Bias-correction constant for REGISTER_COUNT >= 128, from the HyperLogLog paper
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int register = (int) (hash >>> (Long.SIZE - PRECISION));
+
+        // Rank is the position of the first 1-bit in the remaining bits (1-based)
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[register]) registers[register] = rank;
+    }
+
+    public long estimate() {
+        double harmonicSum = 0D;
+        int emptyRegisters = 0;
+        for (byte register : registers) {
+            harmonicSum += 1D / (1L << register);
+            if (register == 0) emptyRegisters += 1;
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / harmonicSum;
+
+        // For small cardinalities, linear counting on the empty registers is more accurate
+        if (estimate <= 2.5 * REGISTER_COUNT && emptyRegisters > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / emptyRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    // 64-bit FNV-1a over the chars, followed by the MurmurHash3 finalizer to spread the bits
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
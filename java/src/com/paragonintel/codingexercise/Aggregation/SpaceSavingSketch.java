@@ -0,0 +1,101 @@
+package com.paragonintel.codingexercise.Aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class tracks the heaviest hitters (e.g. busiest airports) in a stream
+ * using the Space-Saving algorithm. At most 'capacity' counters are kept: when a new key arrives
+ * and all counters are in use, the smallest counter is handed over to the new key, and its old
+ * count is recorded as the new key's possible over-estimate. Any key whose true count is above
+ * (total / capacity) is guaranteed to be kept.
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * A tracked key, with its (possibly over-estimated) count and the maximum over-estimate.
+     */
+    public static class Entry {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return this.key;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getError() {
+            return this.error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Integer> slotsByKey;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.slotsByKey = new HashMap<>();
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.size = 0;
+    }
+
+    public void add(String key) {
+        Integer slot = slotsByKey.get(key);
+        if (slot != null) {
+            counts[slot] += 1;
+            return;
+        }
+
+        // Use a free slot if there is one, otherwise take over the smallest counter
+        if (size < capacity) {
+            slot = size++;
+            errors[slot] = 0;
+            counts[slot] = 1;
+        } else {
+            slot = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[slot]) slot = i;
+            }
+            slotsByKey.remove(keys[slot]);
+            errors[slot] = counts[slot];
+            counts[slot] += 1;
+        }
+        keys[slot] = key;
+        slotsByKey.put(key, slot);
+    }
+
+    /**
+     * Returns up to 'limit' of the tracked keys, ordered by descending count.
+     */
+    public List<Entry> getTop(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) entries.add(new Entry(keys[i], counts[i], errors[i]));
+        entries.sort((a, b) -> (a.count != b.count) ? Long.compare(b.count, a.count) : a.key.compareTo(b.key));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    public void clear() {
+        slotsByKey.clear();
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+}
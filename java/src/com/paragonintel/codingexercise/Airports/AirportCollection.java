@@ -5,6 +5,7 @@ import com.paragonintel.codingexercise.Location.GeoCoordinate;
 import net.sf.javaml.core.kdtree.KDTree;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 public class AirportCollection {
 
@@ -21,15 +22,23 @@ public class AirportCollection {
     }
 
     public static AirportCollection loadFromFile(String filePath) throws IOException {
+        return new AirportCollection(readAirportsFromFile(filePath));
+    }
+
+    public static Airport[] readAirportsFromFile(String filePath) throws IOException {
         var file = new File(filePath);
         if (!file.exists()) {
             throw new FileNotFoundException("File not found: " + filePath);
         }
 
-        Reader reader = new FileReader(filePath);
-        Gson gson = new Gson();
-        Airport[] airports = gson.fromJson(reader, Airport[].class);
-        return new AirportCollection(airports);
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            // Skip the byte-order mark if there is one (airports.json has one), since Gson can't parse it
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') reader.reset();
+
+            Gson gson = new Gson();
+            return gson.fromJson(reader, Airport[].class);
+        }
     }
 
     public Airport getClosestAirport(GeoCoordinate coordinate) {
@@ -0,0 +1,75 @@
+package com.paragonintel.codingexercise.Benchmarks;
+
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Flight.FlightStatTracker;
+
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Stand-alone benchmark measuring how much heap each FlightStatTracker keeps reachable once its events
+ * have been processed (i.e. the events themselves are no longer referenced by anything else). Run with:
+ *      java com.paragonintel.codingexercise.Benchmarks.FlightStatTrackerMemoryBenchmark
+ */
+public class FlightStatTrackerMemoryBenchmark {
+
+    private static final int TRACKER_COUNT = 200_000;
+    private static final int EVENTS_PER_TRACKER = 12;
+
+    // Chance of each optional field being missing from an event, as with partial ADS-B messages
+    private static final double MISSING_FIELD_PROBABILITY = 0.3;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        long baseline = getUsedHeapAfterGc();
+
+        FlightStatTracker[] trackers = new FlightStatTracker[TRACKER_COUNT];
+        for (int t = 0; t < TRACKER_COUNT; t++) {
+            FlightStatTracker tracker = new FlightStatTracker();
+            for (int e = 0; e < EVENTS_PER_TRACKER; e++) {
+                tracker.processEvent(createEvent(random, t, e));
+                if (e == EVENTS_PER_TRACKER / 2) tracker.reset();
+            }
+            trackers[t] = tracker;
+        }
+
+        long used = getUsedHeapAfterGc() - baseline;
+        System.out.printf("%d trackers: %.1f MB retained, %.1f bytes per tracker%n",
+                TRACKER_COUNT, used / (1024D * 1024D), (double) used / TRACKER_COUNT);
+
+        // Keep the trackers reachable until after the measurement
+        long checksum = 0;
+        for (FlightStatTracker tracker : trackers) {
+            if (tracker.getLatestTime() != null) checksum += tracker.getLatestTime().getTime();
+        }
+        System.out.println("checksum=" + checksum);
+    }
+
+    private static AdsbEvent createEvent(Random random, int tracker, int index) {
+        // Each event gets its own identifier String and Date, as it would when parsed from JSON
+        AdsbEvent event = new AdsbEvent();
+        event.setIdentifier(new String("A" + tracker));
+        event.setTimestamp(new Date(1_600_000_000_000L + index * 10_000L));
+        event.setHeading(random.nextDouble() * 360);
+        if (random.nextDouble() >= MISSING_FIELD_PROBABILITY) event.setSpeed(random.nextDouble() * 500);
+        if (random.nextDouble() >= MISSING_FIELD_PROBABILITY) event.setAltitude(random.nextDouble() * 40_000);
+        if (random.nextDouble() >= MISSING_FIELD_PROBABILITY) {
+            event.setLatitude(30 + random.nextDouble() * 20);
+            event.setLongitude(-120 + random.nextDouble() * 40);
+        }
+        return event;
+    }
+
+    private static long getUsedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,86 @@
+package com.paragonintel.codingexercise.Benchmarks;
+
+/**
+ * Fixed-size histogram of non-negative values (e.g. latencies), for computing percentiles over
+ * millions of samples without storing them. Values are bucketed log-linearly: each power of 2 is
+ * split into 16 buckets, so a reported percentile is within ~6% of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    public LatencyHistogram() {
+        this.counts = new long[BUCKET_COUNT];
+    }
+
+    public synchronized void record(long value) {
+        if (value < 0) value = 0;
+        counts[getBucket(value)] += 1;
+        totalCount += 1;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public synchronized long getCount() {
+        return this.totalCount;
+    }
+
+    public synchronized long getMax() {
+        return this.max;
+    }
+
+    public synchronized double getMean() {
+        return (totalCount == 0) ? Double.NaN : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the (approximate) value below which the given percentage of samples fall.
+     * @param percentile Percentile to compute, between 0 and 100.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+
+        long rank = (long) Math.ceil(percentile / 100D * totalCount);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts[bucket];
+            if (seen >= Math.max(rank, 1)) return Math.min(getBucketUpperBound(bucket), max);
+        }
+        return max;
+    }
+
+    /**
+     * Formats the usual percentiles, with values divided by 'scale' (e.g. 1e6 to show ns as ms).
+     */
+    public String summarize(double scale, String unit) {
+        return String.format("count=%d p50=%.2f%s p90=%.2f%s p99=%.2f%s p99.9=%.2f%s max=%.2f%s",
+                getCount(),
+                getPercentile(50) / scale, unit,
+                getPercentile(90) / scale, unit,
+                getPercentile(99) / scale, unit,
+                getPercentile(99.9) / scale, unit,
+                getMax() / scale, unit);
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lowerBound = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.paragonintel.codingexercise.Benchmarks;
+
+/**
+ * LatencyHistogram for values that can be negative (e.g. a result produced before the moment it's
+ * measured against). Negative and non-negative values are kept in separate LatencyHistograms by
+ * magnitude, and percentiles are taken across both, so they have the same ~6% precision.
+ */
+public class SignedLatencyHistogram {
+
+    private final LatencyHistogram negative = new LatencyHistogram();
+    private final LatencyHistogram nonNegative = new LatencyHistogram();
+
+    public void record(long value) {
+        if (value < 0) negative.record(-value);
+        else nonNegative.record(value);
+    }
+
+    public long getCount() {
+        return negative.getCount() + nonNegative.getCount();
+    }
+
+    public long getNegativeCount() {
+        return negative.getCount();
+    }
+
+    public long getMin() {
+        return (negative.getCount() > 0) ? -negative.getMax() : nonNegative.getPercentile(0);
+    }
+
+    public long getMax() {
+        return (nonNegative.getCount() > 0) ? nonNegative.getMax() : -negative.getPercentile(0);
+    }
+
+    /**
+     * Returns the (approximate) value below which the given percentage of samples fall.
+     * @param percentile Percentile to compute, between 0 and 100.
+     */
+    public long getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100D * total));
+        long negativeCount = negative.getCount();
+        if (rank <= negativeCount) {
+            // The rank-th smallest value is the (negativeCount - rank + 1)-th largest negative magnitude
+            return -negative.getPercentile(100D * (negativeCount - rank + 1) / negativeCount);
+        }
+        return nonNegative.getPercentile(100D * (rank - negativeCount) / nonNegative.getCount());
+    }
+
+    /**
+     * Formats the usual percentiles, with values divided by 'scale' (e.g. 1e6 to show ns as ms).
+     */
+    public String summarize(double scale, String unit) {
+        return String.format("count=%d min=%.2f%s p1=%.2f%s p10=%.2f%s p50=%.2f%s p90=%.2f%s p99=%.2f%s max=%.2f%s",
+                getCount(),
+                getMin() / scale, unit,
+                getPercentile(1) / scale, unit,
+                getPercentile(10) / scale, unit,
+                getPercentile(50) / scale, unit,
+                getPercentile(90) / scale, unit,
+                getPercentile(99) / scale, unit,
+                getMax() / scale, unit);
+    }
+}
@@ -0,0 +1,387 @@
+package com.paragonintel.codingexercise.Benchmarks;
+
+import com.paragonintel.codingexercise.Airports.Airport;
+import com.paragonintel.codingexercise.Airports.AirportCollection;
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Flight.FlightExtractor;
+import com.paragonintel.codingexercise.Flight.PlaneTrackerListener;
+import com.paragonintel.codingexercise.Simulation.FleetSimulator;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end soak test of the same pipeline Main runs (FlightExtractor -> PlaneTrackers), fed by a
+ * FleetSimulator at a target rate. While it runs, it periodically prints throughput, heap usage and GC
+ * activity. At the end it reports:
+ * - Per-event service time (processing only) and latency (from the event's release to it being processed).
+ * - Release-to-emission latency: from the release of the event that ended a flight, to the Flight being emitted.
+ * - Touchdown-to-emission latency: from the release of the simulated touchdown, to the Flight being emitted.
+ *   This is signed, since a landing is usually detected (from the approach) before the touchdown itself.
+ * - Heap usage over the run, and GC pause percentiles (as reported by the GC notifications).
+ * - Accuracy of the emitted Flights against the simulator's ground truth.
+ *
+ * With --rate, each event is released at its scheduled time (start + n / rate), and latencies are measured
+ * from then, so time spent behind schedule (e.g. during a GC pause) counts against the events that were
+ * waiting, rather than being hidden by the harness slowing down. Unthrottled, each event is released as
+ * soon as the previous one is done, so latencies only cover processing.
+ *
+ * Emitted Flights are matched against the ground truth as the run goes, and only a small summary of the
+ * unmatched ones is kept, so the heap samples reflect the pipeline rather than the harness.
+ *
+ * Run from the java directory with, e.g.:
+ *      java -Xmx8g com.paragonintel.codingexercise.Benchmarks.SoakHarness --aircraft 200000 --hours 24 --rate 50000
+ * Options (defaults): --aircraft (200000) --hours (24) --rate events/s, 0 for unthrottled (0) --seed (1)
+ *      --report-seconds (10) --airports (src/com/paragonintel/codingexercise/Resources/airports.json)
+ */
+public class SoakHarness {
+
+    private static final String DEFAULT_AIRPORTS_PATH = "src/com/paragonintel/codingexercise/Resources/airports.json";
+    private static final Date SIMULATION_START = new Date(1596240000000L);  // 2020-08-01T00:00:00Z
+
+    // How often (in events) to record the mapping between simulated time and release time
+    private static final int CLOCK_SAMPLE_INTERVAL = 256;
+
+    // How often (in events) to publish progress to the monitor and collect landed legs from the simulator
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    // When waiting for an event's release time, sleep until this close to it, then spin
+    private static final long MAX_SPIN_NANOS = 1_000_000L;
+
+    // Emitted flights must land within this long of a ground-truth flight to be matched to it
+    private static final long MATCH_TOLERANCE = 30 * 60 * 1000L;
+
+    // Unmatched legs are dropped once the simulation is this far past their arrival, since nothing
+    // emitted/landed from then on can be within MATCH_TOLERANCE of them
+    private static final long MATCH_EXPIRY = 2 * MATCH_TOLERANCE;
+
+    // Summary of a landed leg (emitted, or from the ground truth) waiting to be matched
+    private static class PendingLeg {
+        final String departureAirport;
+        final long departureTime; // Long.MIN_VALUE if unknown
+        final String arrivalAirport;
+        final long arrivalTime;
+        final long emittedNanos; // Only set for emitted legs
+
+        PendingLeg(Flight flight, long emittedNanos) {
+            this.departureAirport = flight.getDepartureAirport();
+            this.departureTime = (flight.getDepartureTime() != null) ? flight.getDepartureTime().getTime() : Long.MIN_VALUE;
+            this.arrivalAirport = flight.getArrivalAirport();
+            this.arrivalTime = flight.getArrivalTime().getTime();
+            this.emittedNanos = emittedNanos;
+        }
+    }
+
+    private final LatencyHistogram serviceNanos = new LatencyHistogram();
+    private final LatencyHistogram eventLatencyNanos = new LatencyHistogram();
+    private final LatencyHistogram emissionNanos = new LatencyHistogram();
+    private final SignedLatencyHistogram touchdownLatencyMillis = new SignedLatencyHistogram();
+    private final LatencyHistogram gcPauseMillis = new LatencyHistogram();
+    private final LatencyHistogram departureErrorSeconds = new LatencyHistogram();
+    private final LatencyHistogram arrivalErrorSeconds = new LatencyHistogram();
+    private long eventReleaseNanos; // When the event currently being processed was released
+
+    // Legs waiting to be matched, by aircraft
+    private final Map<String, List<PendingLeg>> pendingEmitted = new HashMap<>();
+    private final Map<String, List<PendingLeg>> pendingTruth = new HashMap<>();
+    private long truthCount, matchedCount, matchedDepartureAirportCount;
+
+    // Read by the monitor thread
+    private volatile long processedEvents;
+    private volatile long emittedCount;
+
+    // Samples of (simulated time, release ns) as the replay progresses
+    private long[] clockSimTimes = new long[1024];
+    private long[] clockReleaseNanos = new long[1024];
+    private int clockSampleCount = 0;
+
+    // Samples of (seconds since start, used heap bytes)
+    private final List<long[]> heapSamples = Collections.synchronizedList(new ArrayList<>());
+
+    public static void main(String[] args) throws Exception {
+        int aircraftCount = Integer.parseInt(getArgValue(args, "--aircraft", "200000"));
+        double hours = Double.parseDouble(getArgValue(args, "--hours", "24"));
+        double targetRate = Double.parseDouble(getArgValue(args, "--rate", "0"));
+        long seed = Long.parseLong(getArgValue(args, "--seed", "1"));
+        int reportSeconds = Integer.parseInt(getArgValue(args, "--report-seconds", "10"));
+        String airportsPath = getArgValue(args, "--airports", DEFAULT_AIRPORTS_PATH);
+
+        new SoakHarness().run(airportsPath, aircraftCount, hours, targetRate, seed, reportSeconds);
+    }
+
+    private void run(String airportsPath, int aircraftCount, double hours, double targetRate,
+                     long seed, int reportSeconds) throws Exception {
+        Airport[] airports = AirportCollection.readAirportsFromFile(airportsPath);
+        FleetSimulator simulator = new FleetSimulator(
+                airports, aircraftCount, SIMULATION_START, (long) (hours * 3600 * 1000), seed);
+
+        FlightExtractor extractor = new FlightExtractor(new AirportCollection(airports));
+        extractor.addListener(new PlaneTrackerListener() {
+            @Override
+            public void onFlightCompleted(Flight flight) {
+                long now = System.nanoTime();
+                emissionNanos.record(now - eventReleaseNanos);
+                emittedCount += 1;
+                onEmitted(flight, now);
+            }
+        });
+
+        System.out.printf("Simulating %d aircraft for %.1f hours at %s events/s%n",
+                aircraftCount, hours, (targetRate > 0) ? String.valueOf(targetRate) : "unthrottled");
+
+        listenForGarbageCollections();
+        long startNanos = System.nanoTime();
+        ScheduledExecutorService monitor = startMonitor(startNanos, reportSeconds);
+
+        AdsbEvent event;
+        long count = 0;
+        while ((event = simulator.next()) != null) {
+            long releaseNanos;
+            if (targetRate > 0) {
+                releaseNanos = startNanos + (long) (count / targetRate * 1e9);
+                waitUntil(releaseNanos);
+            } else {
+                releaseNanos = System.nanoTime();
+            }
+            if (count % CLOCK_SAMPLE_INTERVAL == 0) recordClockSample(simulator.getCurrentTime(), releaseNanos);
+
+            eventReleaseNanos = releaseNanos;
+            long serviceStartNanos = System.nanoTime();
+            extractor.processEvent(event);
+            long doneNanos = System.nanoTime();
+            serviceNanos.record(doneNanos - serviceStartNanos);
+            eventLatencyNanos.record(doneNanos - releaseNanos);
+
+            count += 1;
+            if (count % PROGRESS_INTERVAL == 0) {
+                processedEvents = count;
+                collectGroundTruth(simulator);
+            }
+        }
+        processedEvents = count;
+        collectGroundTruth(simulator);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        monitor.shutdownNow();
+        recordHeapSample(startNanos);
+
+        printReport(count, elapsedSeconds);
+    }
+
+    private void printReport(long eventCount, double elapsedSeconds) {
+        System.out.println();
+        System.out.printf("Events: %d in %.1fs (%.0f events/s)%n", eventCount, elapsedSeconds, eventCount / elapsedSeconds);
+        System.out.println("Event service time:    " + serviceNanos.summarize(1e3, "us"));
+        System.out.println("Event latency:         " + eventLatencyNanos.summarize(1e3, "us"));
+        System.out.println("Release-to-emission:   " + emissionNanos.summarize(1e3, "us"));
+        System.out.println("Touchdown-to-emission: " + touchdownLatencyMillis.summarize(1, "ms") +
+                " (" + touchdownLatencyMillis.getNegativeCount() + " emitted before touchdown)");
+        System.out.println("GC pauses:             " + gcPauseMillis.summarize(1, "ms"));
+        System.out.println("Heap used (MB):        " + summarizeHeap());
+        System.out.println();
+        System.out.printf("Ground truth: %d landed legs, %d flights emitted, %d matched (recall %.1f%%, precision %.1f%%)%n",
+                truthCount, emittedCount, matchedCount,
+                100D * matchedCount / Math.max(1, truthCount),
+                100D * matchedCount / Math.max(1, emittedCount));
+        System.out.printf("Matched flights with the correct departure airport: %d (%.1f%%)%n",
+                matchedDepartureAirportCount, 100D * matchedDepartureAirportCount / Math.max(1, matchedCount));
+        System.out.println("Departure time error:  " + departureErrorSeconds.summarize(1, "s"));
+        System.out.println("Arrival time error:    " + arrivalErrorSeconds.summarize(1, "s"));
+    }
+
+    /**
+     * Matches a newly emitted Flight to the closest waiting ground-truth leg, or leaves it waiting for one.
+     */
+    private void onEmitted(Flight flight, long emittedNanos) {
+        if (flight.getArrivalTime() == null || flight.getArrivalAirport() == null) return;
+
+        PendingLeg emitted = new PendingLeg(flight, emittedNanos);
+        String aircraftId = flight.getAircraftIdentifier();
+        PendingLeg truth = takeClosest(pendingTruth, aircraftId, emitted);
+        if (truth != null) recordMatch(emitted, truth);
+        else pendingEmitted.computeIfAbsent(aircraftId, a -> new ArrayList<>()).add(emitted);
+    }
+
+    /**
+     * Matches the legs that have landed since the last call to the closest waiting emitted Flights (or
+     * leaves them waiting for one), and then drops anything that's too old to be matched any more.
+     */
+    private void collectGroundTruth(FleetSimulator simulator) {
+        // Make sure every leg collected here has a release time for its touchdown
+        recordClockSample(simulator.getCurrentTime(), eventReleaseNanos);
+
+        for (Flight flight : simulator.takeGroundTruth()) {
+            truthCount += 1;
+            PendingLeg truth = new PendingLeg(flight, 0L);
+            String aircraftId = flight.getAircraftIdentifier();
+            PendingLeg emitted = takeClosest(pendingEmitted, aircraftId, truth);
+            if (emitted != null) recordMatch(emitted, truth);
+            else pendingTruth.computeIfAbsent(aircraftId, a -> new ArrayList<>()).add(truth);
+        }
+
+        long expiryTime = simulator.getCurrentTime() - MATCH_EXPIRY;
+        expire(pendingEmitted, expiryTime);
+        expire(pendingTruth, expiryTime);
+    }
+
+    private void recordMatch(PendingLeg emitted, PendingLeg truth) {
+        matchedCount += 1;
+        arrivalErrorSeconds.record(Math.abs(emitted.arrivalTime - truth.arrivalTime) / 1000);
+        if (truth.departureAirport.equals(emitted.departureAirport) && emitted.departureTime != Long.MIN_VALUE) {
+            matchedDepartureAirportCount += 1;
+            departureErrorSeconds.record(Math.abs(emitted.departureTime - truth.departureTime) / 1000);
+        }
+
+        long touchdownReleaseNanos = getReleaseNanosAt(truth.arrivalTime);
+        if (touchdownReleaseNanos >= 0) {
+            touchdownLatencyMillis.record((emitted.emittedNanos - touchdownReleaseNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Removes and returns the waiting leg of the aircraft that landed at the same airport closest in time
+     * to 'leg' (within MATCH_TOLERANCE), or null if there isn't one.
+     */
+    private static PendingLeg takeClosest(Map<String, List<PendingLeg>> pending, String aircraftId, PendingLeg leg) {
+        List<PendingLeg> candidates = pending.get(aircraftId);
+        if (candidates == null) return null;
+
+        int closest = -1;
+        long closestDifference = MATCH_TOLERANCE;
+        for (int i = 0; i < candidates.size(); i++) {
+            PendingLeg candidate = candidates.get(i);
+            if (!candidate.arrivalAirport.equals(leg.arrivalAirport)) continue;
+            long difference = Math.abs(candidate.arrivalTime - leg.arrivalTime);
+            if (difference <= closestDifference) {
+                closest = i;
+                closestDifference = difference;
+            }
+        }
+        if (closest < 0) return null;
+
+        PendingLeg match = candidates.remove(closest);
+        if (candidates.isEmpty()) pending.remove(aircraftId);
+        return match;
+    }
+
+    private static void expire(Map<String, List<PendingLeg>> pending, long expiryTime) {
+        Iterator<List<PendingLeg>> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            List<PendingLeg> legs = iterator.next();
+            legs.removeIf(leg -> leg.arrivalTime < expiryTime);
+            if (legs.isEmpty()) iterator.remove();
+        }
+    }
+
+    /**
+     * Waits (sleeping, then spinning for the last stretch) until System.nanoTime() reaches the given time.
+     */
+    private static void waitUntil(long nanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanos - System.nanoTime()) > 0) {
+            if (remaining > MAX_SPIN_NANOS) TimeUnit.NANOSECONDS.sleep(remaining - MAX_SPIN_NANOS);
+            else Thread.onSpinWait();
+        }
+    }
+
+    private void recordClockSample(long simTime, long releaseNanos) {
+        if (clockSampleCount == clockSimTimes.length) {
+            clockSimTimes = Arrays.copyOf(clockSimTimes, clockSampleCount * 2);
+            clockReleaseNanos = Arrays.copyOf(clockReleaseNanos, clockSampleCount * 2);
+        }
+        clockSimTimes[clockSampleCount] = simTime;
+        clockReleaseNanos[clockSampleCount] = releaseNanos;
+        clockSampleCount += 1;
+    }
+
+    /**
+     * Returns the release time (ns) of the first event at or after the given simulated time, or -1 if
+     * the replay hasn't reached it. Simulated time only moves forward, so the samples are sorted.
+     */
+    private long getReleaseNanosAt(long simTime) {
+        int low = 0, high = clockSampleCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (clockSimTimes[mid] < simTime) low = mid + 1;
+            else high = mid;
+        }
+        return (low < clockSampleCount) ? clockReleaseNanos[low] : -1;
+    }
+
+    private void listenForGarbageCollections() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(collector instanceof NotificationEmitter)) continue;
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                gcPauseMillis.record(info.getGcInfo().getDuration());
+            }, null, null);
+        }
+    }
+
+    /**
+     * Starts a background thread which samples the heap every second, and prints progress every reportSeconds.
+     */
+    private ScheduledExecutorService startMonitor(long startNanos, int reportSeconds) {
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long[] lastReport = {0L, 0L};  // {seconds, event count} at the last report
+        monitor.scheduleAtFixedRate(() -> {
+            long[] sample = recordHeapSample(startNanos);
+            long seconds = sample[0];
+            if (seconds - lastReport[0] < reportSeconds) return;
+
+            long events = processedEvents;
+            System.out.printf("[%5ds] events=%d (%.0f/s) heap=%dMB gcs=%d emitted=%d%n",
+                    seconds, events, (double) (events - lastReport[1]) / (seconds - lastReport[0]),
+                    sample[1] / (1024 * 1024), gcPauseMillis.getCount(), emittedCount);
+            lastReport[0] = seconds;
+            lastReport[1] = events;
+        }, 1, 1, TimeUnit.SECONDS);
+        return monitor;
+    }
+
+    private long[] recordHeapSample(long startNanos) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] sample = {(System.nanoTime() - startNanos) / 1_000_000_000L, memory.getHeapMemoryUsage().getUsed()};
+        heapSamples.add(sample);
+        return sample;
+    }
+
+    private String summarizeHeap() {
+        synchronized (heapSamples) {
+            if (heapSamples.isEmpty()) return "no samples";
+            long min = Long.MAX_VALUE, max = 0, sum = 0;
+            for (long[] sample : heapSamples) {
+                min = Math.min(min, sample[1]);
+                max = Math.max(max, sample[1]);
+                sum += sample[1];
+            }
+            long last = heapSamples.get(heapSamples.size() - 1)[1];
+            long mb = 1024 * 1024;
+            return String.format("samples=%d min=%d mean=%d max=%d final=%d",
+                    heapSamples.size(), min / mb, sum / heapSamples.size() / mb, max / mb, last / mb);
+        }
+    }
+
+    private static String getArgValue(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) return args[i + 1];
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,98 @@
+package com.paragonintel.codingexercise.Benchmarks;
+
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Track.FlightTrack;
+import com.paragonintel.codingexercise.Track.TrackRecorder;
+
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Stand-alone benchmark for FlightTrack: records synthetic flights with and without simplification,
+ * reports the encoded size per point, and measures decoding throughput. Run with:
+ *      java com.paragonintel.codingexercise.Benchmarks.TrackDecodeBenchmark
+ */
+public class TrackDecodeBenchmark {
+
+    private static final int POINTS_PER_FLIGHT = 5_000;  // ~7 hours at one event every 5 seconds
+    private static final int FLIGHT_COUNT = 200;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private static final double[] TOLERANCES_MILES = {0D, 0.05D, 0.25D};
+
+    // Accumulates decoded values, so the JIT can't skip the decoding
+    private static double checksum = 0D;
+
+    public static void main(String[] args) {
+        for (double tolerance : TOLERANCES_MILES) {
+            FlightTrack[] tracks = recordFlights(tolerance);
+
+            long points = 0, bytes = 0;
+            for (FlightTrack track : tracks) {
+                points += track.getPointCount();
+                bytes += track.getEncodedSize();
+            }
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) decodeAll(tracks);
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) decodeAll(tracks);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("tolerance=%.2fmi points=%d/%d (%.1f%% kept) bytes/point=%.2f decode=%.1fM points/s%n",
+                    tolerance, points, (long) FLIGHT_COUNT * POINTS_PER_FLIGHT,
+                    100D * points / ((long) FLIGHT_COUNT * POINTS_PER_FLIGHT),
+                    (double) bytes / points,
+                    points * MEASURED_ITERATIONS / seconds / 1e6);
+        }
+        System.out.println("checksum=" + checksum);
+    }
+
+    private static void decodeAll(FlightTrack[] tracks) {
+        for (FlightTrack track : tracks) {
+            track.forEachPoint((timestamp, latitude, longitude, altitude, speed) ->
+                    checksum += latitude + longitude + altitude + speed + timestamp);
+        }
+    }
+
+    /**
+     * Records FLIGHT_COUNT synthetic flights with a climb, a gently turning cruise and a descent, with
+     * a little noise on every reading, the same way PlaneTracker feeds a TrackRecorder.
+     */
+    private static FlightTrack[] recordFlights(double toleranceMiles) {
+        Random random = new Random(42);
+        FlightTrack[] tracks = new FlightTrack[FLIGHT_COUNT];
+
+        for (int f = 0; f < FLIGHT_COUNT; f++) {
+            TrackRecorder recorder = new TrackRecorder(toleranceMiles, 250D);
+            double latitude = 30 + random.nextDouble() * 15;
+            double longitude = -120 + random.nextDouble() * 40;
+            double heading = random.nextDouble() * 360;
+            long time = 1_600_000_000_000L;
+
+            for (int i = 0; i < POINTS_PER_FLIGHT; i++) {
+                double progress = (double) i / POINTS_PER_FLIGHT;
+                double altitude = 35_000 * Math.min(1, Math.min(progress, 1 - progress) * 8);
+                double speed = 150 + 300 * Math.min(1, Math.min(progress, 1 - progress) * 10);
+
+                // Move along the heading for 5 seconds, turning slightly
+                heading += random.nextGaussian() * 0.5;
+                double distanceDegrees = speed * 5 / 3600 / 60;
+                latitude += distanceDegrees * Math.cos(Math.toRadians(heading));
+                longitude += distanceDegrees * Math.sin(Math.toRadians(heading)) / Math.cos(Math.toRadians(latitude));
+                time += 5_000 + random.nextInt(200) - 100;
+
+                AdsbEvent event = new AdsbEvent();
+                event.setIdentifier("BENCH" + f);
+                event.setTimestamp(new Date(time));
+                event.setLatitude(latitude + random.nextGaussian() * 1e-4);
+                event.setLongitude(longitude + random.nextGaussian() * 1e-4);
+                event.setAltitude(Math.round(altitude / 25) * 25);
+                event.setSpeed(Math.round(speed));
+                recorder.processEvent(event);
+            }
+            tracks[f] = recorder.getTrack();
+        }
+        return tracks;
+    }
+}
@@ -0,0 +1,70 @@
+package com.paragonintel.codingexercise.Flight;
+
+import java.util.Date;
+
+/**
+ * Immutable snapshot of what a PlaneTracker currently knows about its plane. A new snapshot
+ * is published for every event with a location, so readers can hold on to one without it
+ * changing underneath them. Fields that aren't known yet are left null.
+ */
+public final class AircraftState {
+    private final String aircraftIdentifier;
+    private final long timestamp;
+    private final double latitude;
+    private final double longitude;
+    private final Double altitude;
+    private final Double speed;
+    private final Boolean airborne;
+    private final String nearestAirport;
+    private final Double nearestAirportDistance;
+
+    public AircraftState(String aircraftIdentifier, long timestamp, double latitude, double longitude,
+                         Double altitude, Double speed, Boolean airborne,
+                         String nearestAirport, Double nearestAirportDistance) {
+        this.aircraftIdentifier = aircraftIdentifier;
+        this.timestamp = timestamp;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.speed = speed;
+        this.airborne = airborne;
+        this.nearestAirport = nearestAirport;
+        this.nearestAirportDistance = nearestAirportDistance;
+    }
+
+    public String getAircraftIdentifier() {
+        return this.aircraftIdentifier;
+    }
+
+    public Date getTimestamp() {
+        return new Date(this.timestamp);
+    }
+
+    public double getLatitude() {
+        return this.latitude;
+    }
+
+    public double getLongitude() {
+        return this.longitude;
+    }
+
+    public Double getAltitude() {
+        return this.altitude;
+    }
+
+    public Double getSpeed() {
+        return this.speed;
+    }
+
+    public Boolean getAirborne() {
+        return this.airborne;
+    }
+
+    public String getNearestAirport() {
+        return this.nearestAirport;
+    }
+
+    public Double getNearestAirportDistance() {
+        return this.nearestAirportDistance;
+    }
+}
@@ -1,13 +1,26 @@
 package com.paragonintel.codingexercise.Flight;
 
+import com.paragonintel.codingexercise.Track.FlightTrack;
+
+import java.util.Comparator;
 import java.util.Date;
 
 public class Flight {
+    // Deterministic ordering for output: by departure time, then aircraft, then arrival time, then airports.
+    // Flights with an unknown departure time come first, and those with an unknown arrival time come last.
+    public static final Comparator<Flight> DEPARTURE_ORDER = Comparator
+            .comparing(Flight::getDepartureTime, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+            .thenComparing(Flight::getAircraftIdentifier, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Flight::getArrivalTime, Comparator.nullsLast(Comparator.<Date>naturalOrder()))
+            .thenComparing(Flight::getDepartureAirport, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Flight::getArrivalAirport, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
     private String aircraftIdentifier;
     private Date departureTime;
     private String departureAirport;
     private Date arrivalTime;
     private String arrivalAirport;
+    private FlightTrack track; // Only set if track recording is enabled
 
     public String getAircraftIdentifier() {
         return this.aircraftIdentifier;
@@ -48,4 +61,12 @@ public class Flight {
     public void setArrivalAirport(String arrivalAirport) {
         this.arrivalAirport = arrivalAirport;
     }
+
+    public FlightTrack getTrack() {
+        return this.track;
+    }
+
+    public void setTrack(FlightTrack track) {
+        this.track = track;
+    }
 }
@@ -0,0 +1,85 @@
+package com.paragonintel.codingexercise.Flight;
+
+import com.paragonintel.codingexercise.Airports.AirportCollection;
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Track.TrackRecorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class routes a stream of events (for any number of planes) to a
+ * PlaneTracker per plane, and collect the resulting Flights. Listeners and track recording are
+ * applied to every PlaneTracker as it is created.
+ */
+public class FlightExtractor {
+
+    private final AirportCollection airports; // Optimized collection of all Airports
+    private final Map<String, PlaneTracker> planeTrackerMap; // PlaneTracker for each plane ID
+    private final List<PlaneTrackerListener> listeners; // Added to each new PlaneTracker
+    private final List<PlaneTrackerListener> stateListeners; // Added to each new PlaneTracker as state listeners
+    private Double trackToleranceMiles; // If set, each PlaneTracker records tracks at this tolerance
+
+    public FlightExtractor(AirportCollection airports) {
+        this.airports = airports;
+        this.planeTrackerMap = new HashMap<>();
+        this.listeners = new ArrayList<>();
+        this.stateListeners = new ArrayList<>();
+    }
+
+    /**
+     * Registers a listener on every PlaneTracker created from now on.
+     * @param listener The PlaneTrackerListener to notify.
+     */
+    public void addListener(PlaneTrackerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a state listener (see PlaneTracker.addStateListener) on every PlaneTracker created from now on.
+     * @param listener The PlaneTrackerListener whose onStateUpdated() is called.
+     */
+    public void addStateListener(PlaneTrackerListener listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Enables track recording on every PlaneTracker created from now on.
+     * @param toleranceMiles Simplification tolerance passed to each TrackRecorder (0 keeps every point).
+     */
+    public void enableTrackRecording(double toleranceMiles) {
+        this.trackToleranceMiles = toleranceMiles;
+    }
+
+    /**
+     * Passes the event to the PlaneTracker for its plane, creating one if needed.
+     * @param event The next AdsbEvent in the stream.
+     */
+    public void processEvent(AdsbEvent event) {
+        String planeId = event.getIdentifier();
+        PlaneTracker planeTracker = planeTrackerMap.get(planeId);
+        if (planeTracker == null) {
+            planeTracker = new PlaneTracker(planeId, airports);
+            for (PlaneTrackerListener listener : listeners) planeTracker.addListener(listener);
+            for (PlaneTrackerListener listener : stateListeners) planeTracker.addStateListener(listener);
+            if (trackToleranceMiles != null) planeTracker.setTrackRecorder(new TrackRecorder(trackToleranceMiles));
+            planeTrackerMap.put(planeId, planeTracker);
+        }
+        planeTracker.processEvent(event);
+    }
+
+    /**
+     * Requests the Flights from each PlaneTracker, sorted by Flight.DEPARTURE_ORDER so that the
+     * output doesn't depend on the order the planes were tracked in.
+     */
+    public List<Flight> getFlights() {
+        List<Flight> flights = new ArrayList<>();
+        planeTrackerMap.values()
+                .stream()
+                .forEach(planeTracker -> flights.addAll(planeTracker.getFlights()));
+        flights.sort(Flight.DEPARTURE_ORDER);
+        return flights;
+    }
+}
@@ -3,7 +3,7 @@ package com.paragonintel.codingexercise.Flight;
 import com.paragonintel.codingexercise.Events.AdsbEvent;
 import com.paragonintel.codingexercise.Location.GeoCoordinate;
 
-import java.util.*;
+import java.util.Date;
 
 /**
  * This class has 2 main purposes:
@@ -12,102 +12,125 @@ import java.util.*;
  *
  * Tracker gets reset when a plane takes off, and is used to generate a Flight
  * model once the plane has landed.
+ *
+ * Only the values we need are copied out of each event, as primitives, so the tracker doesn't keep
+ * whole AdsbEvents (and their identifier Strings and Dates) alive. Missing values are stored as NaN,
+ * which is safe since processEvent() never accepts a NaN value, and missing times as NO_TIME.
  */
 public class FlightStatTracker {
 
-    private AdsbEvent earliestSpeedEvent;
-    private AdsbEvent earliestAltitudeEvent;
-    private AdsbEvent earliestCoordinateEvent;
+    // Stored time when there's no matching event (or it had no timestamp)
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private double earliestSpeed = Double.NaN;
+    private double earliestAltitude = Double.NaN;
+    private double earliestLatitude = Double.NaN;
+    private double earliestLongitude = Double.NaN;
+    private long earliestCoordinateTime = NO_TIME;
 
-    private AdsbEvent latestSpeedEvent;
-    private AdsbEvent latestAltitudeEvent;
-    private AdsbEvent latestCoordinateEvent;
+    private double latestSpeed = Double.NaN;
+    private double latestAltitude = Double.NaN;
+    private double latestLatitude = Double.NaN;
+    private double latestLongitude = Double.NaN;
+    private long latestSpeedTime = NO_TIME;
+    private long latestAltitudeTime = NO_TIME;
+    private long latestCoordinateTime = NO_TIME;
 
     public FlightStatTracker() {}
 
     // Resets the tracker, so the most recent event is now the only event
     // This is invoked to effectively 'start' the flight.
     public void reset() {
-        earliestSpeedEvent = latestSpeedEvent;
-        earliestCoordinateEvent = latestCoordinateEvent;
-        earliestAltitudeEvent = latestAltitudeEvent;
+        earliestSpeed = latestSpeed;
+        earliestAltitude = latestAltitude;
+        earliestLatitude = latestLatitude;
+        earliestLongitude = latestLongitude;
+        earliestCoordinateTime = latestCoordinateTime;
     }
 
     public void processEvent(AdsbEvent event) {
         if (event == null) return;
+        long time = (event.getTimestamp() != null) ? event.getTimestamp().getTime() : NO_TIME;
 
         // If the event has a speed, update the earliest/latest speed
         if (event.getSpeed() != null && !event.getSpeed().isNaN()) {
-            latestSpeedEvent = event;
-            if (earliestSpeedEvent == null) earliestSpeedEvent = event;
+            latestSpeed = event.getSpeed();
+            latestSpeedTime = time;
+            if (Double.isNaN(earliestSpeed)) earliestSpeed = latestSpeed;
         }
 
         // If the event has an altitude, update the earliest/latest altitude
         if (event.getAltitude() != null && !event.getAltitude().isNaN()) {
-            latestAltitudeEvent = event;
-            if (earliestAltitudeEvent == null) earliestAltitudeEvent = event;
+            latestAltitude = event.getAltitude();
+            latestAltitudeTime = time;
+            if (Double.isNaN(earliestAltitude)) earliestAltitude = latestAltitude;
         }
 
         // If the event has a lat/long, update the earliest/latest lat/long
         if (event.getLatitude() != null && !event.getLatitude().isNaN() &&
             event.getLongitude() != null && !event.getLongitude().isNaN()) {
-            latestCoordinateEvent = event;
-            if (earliestCoordinateEvent == null) {
-                earliestCoordinateEvent = latestCoordinateEvent;
+            latestLatitude = event.getLatitude();
+            latestLongitude = event.getLongitude();
+            latestCoordinateTime = time;
+            if (Double.isNaN(earliestLatitude)) {
+                earliestLatitude = latestLatitude;
+                earliestLongitude = latestLongitude;
+                earliestCoordinateTime = latestCoordinateTime;
             }
         }
     }
 
     // Returns the timestamp of the earliest event with a valid coordinate
     public Date getEarliestCoordinateTime() {
-        if (earliestCoordinateEvent == null) return null;
-        return earliestCoordinateEvent.getTimestamp();
+        return toDate(earliestCoordinateTime);
     }
 
     public Double getEarliestSpeed() {
-        if (earliestSpeedEvent == null) return null;
-        return earliestSpeedEvent.getSpeed();
+        return toDouble(earliestSpeed);
     }
 
     public Double getEarliestAltitude() {
-        if (earliestAltitudeEvent == null) return null;
-        return earliestAltitudeEvent.getAltitude();
+        return toDouble(earliestAltitude);
     }
 
     public GeoCoordinate getEarliestCoordinate() {
-        if (earliestCoordinateEvent == null) return null;
-        return new GeoCoordinate(
-                earliestCoordinateEvent.getLatitude(),
-                earliestCoordinateEvent.getLongitude()
-        );
+        if (Double.isNaN(earliestLatitude)) return null;
+        return new GeoCoordinate(earliestLatitude, earliestLongitude);
     }
 
     // Of the 3 most recent events, returns the maximum timestamp.
     public Date getLatestTime() {
-        List<Date> timestamps = new ArrayList<>();
-        if (latestSpeedEvent != null) timestamps.add(latestSpeedEvent.getTimestamp());
-        if (latestAltitudeEvent != null) timestamps.add(latestAltitudeEvent.getTimestamp());
-        if (latestCoordinateEvent != null) timestamps.add(latestCoordinateEvent.getTimestamp());
-
-        if (timestamps.isEmpty()) return null;
-        Collections.sort(timestamps);
-        return timestamps.get(timestamps.size() - 1);
+        return toDate(Math.max(latestSpeedTime, Math.max(latestAltitudeTime, latestCoordinateTime)));
     }
 
     public Double getLatestSpeed() {
-        if (latestSpeedEvent == null) return null;
-        return latestSpeedEvent.getSpeed();
+        return toDouble(latestSpeed);
     }
 
     public Double getLatestAltitude() {
-        if (latestAltitudeEvent == null) return null;
-        return latestAltitudeEvent.getAltitude();
+        return toDouble(latestAltitude);
+    }
+
+    // Same as getLatestSpeed(), but NaN (rather than null) if unknown, so nothing gets boxed
+    public double getLatestSpeedValue() {
+        return latestSpeed;
+    }
+
+    // Same as getLatestAltitude(), but NaN (rather than null) if unknown, so nothing gets boxed
+    public double getLatestAltitudeValue() {
+        return latestAltitude;
     }
 
     public GeoCoordinate getLatestCoordinate() {
-        return new GeoCoordinate(
-            latestCoordinateEvent.getLatitude(),
-            latestCoordinateEvent.getLongitude()
-        );
+        if (Double.isNaN(latestLatitude)) return null;
+        return new GeoCoordinate(latestLatitude, latestLongitude);
+    }
+
+    private static Date toDate(long time) {
+        return (time == NO_TIME) ? null : new Date(time);
+    }
+
+    private static Double toDouble(double value) {
+        return Double.isNaN(value) ? null : value;
     }
 }
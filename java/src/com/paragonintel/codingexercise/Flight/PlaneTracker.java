@@ -4,6 +4,7 @@ import com.paragonintel.codingexercise.Airports.Airport;
 import com.paragonintel.codingexercise.Airports.AirportCollection;
 import com.paragonintel.codingexercise.Events.AdsbEvent;
 import com.paragonintel.codingexercise.Location.GeoCoordinate;
+import com.paragonintel.codingexercise.Track.TrackRecorder;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -35,30 +36,62 @@ public class PlaneTracker {
     private final AirportCollection airports; // Optimized collection of all Airports
     private final FlightStatTracker flightStatsTracker; // Tracks stats of current flight
     private final MovingAverageCalculator averageDistanceToAirport; // distance to nearest airport
+    private final List<PlaneTrackerListener> listeners; // Notified of departures and arrivals
+    private final List<PlaneTrackerListener> stateListeners; // Notified of every state update (opt-in)
 
     private Boolean airborne; // Says whether the plane is in the air or not
     private Date lastTransitionTime; // The last time we switched (airborne -> landed), or vice versa
     private Airport mostRecentlyVisited; // The last airport we landed at
     private Airport latestClosestAirport; // The airport we are currently closest to
+    private Double latestDistanceToAirport; // Distance (miles) to latestClosestAirport
+    private TrackRecorder trackRecorder; // Records the path of the current flight, if enabled
 
     public PlaneTracker(String planeId, AirportCollection airports) {
         this.flightStatsTracker = new FlightStatTracker();
         this.planeId = planeId;
         this.airports = airports;
         this.flights = new ArrayList<>();
+        this.listeners = new ArrayList<>();
+        this.stateListeners = new ArrayList<>();
         this.averageDistanceToAirport = new MovingAverageCalculator(MOVING_AVERAGE_TIME_WINDOW);
 
         this.airborne = null;  // Null to start, since we don't know if we're airborne or not
         this.lastTransitionTime = new Date(0L);
     }
 
+    /**
+     * Registers a listener to be notified as this plane takes off and lands.
+     * @param listener The PlaneTrackerListener to notify.
+     */
+    public void addListener(PlaneTrackerListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a listener to be notified of every state update (i.e. every event with a location).
+     * This is separate from addListener(), since a snapshot has to be built for every such event,
+     * which we'd rather not pay for unless somebody actually wants them.
+     * @param listener The PlaneTrackerListener whose onStateUpdated() is called.
+     */
+    public void addStateListener(PlaneTrackerListener listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Enables recording the path of each flight, which is attached to the generated Flights.
+     * @param trackRecorder The TrackRecorder to use for this plane.
+     */
+    public void setTrackRecorder(TrackRecorder trackRecorder) {
+        this.trackRecorder = trackRecorder;
+    }
+
     /**
      * Returns the computed flights for this PlaneTracker. If there are any flights
      * in progress (e.g. still airborne), create a departure-only Flight
      */
     public List<Flight> getFlights() {
         List<Flight> flightsCopy = new ArrayList(flights);
-        if (airborne) {
+        if (Boolean.TRUE.equals(airborne)) {
             Flight inProgressFlight = generateFlight();
             if (inProgressFlight != null) flightsCopy.add(inProgressFlight);
         }
@@ -80,6 +113,7 @@ public class PlaneTracker {
 
         // Process the event
         flightStatsTracker.processEvent(event);
+        if (trackRecorder != null) trackRecorder.processEvent(event);
 
         // Figure out what fields the event has available
         Boolean hasLatitude = (event.getLatitude() != null) && !event.getLatitude().isNaN();
@@ -87,31 +121,8 @@ public class PlaneTracker {
 
         // If we have location information, update the flight tracker
         if (hasLatitude && hasLongitude) {
-
-            // Get the nearest airport + distance to the event, and update the moving average
-            latestClosestAirport = airports.getClosestAirport(event.getGeoCoordinate());
-            Double distance = latestClosestAirport.getGeoCoordinate().getDistanceTo(event.getGeoCoordinate());
-            averageDistanceToAirport.ingest(distance, event.getTimestamp().getTime());
-
-            // See if we've recently transition between airborne/not. If so, don't transition again for
-            // MIN_TRANSITION_DELAY. This prevents the case where a plane is traveling on the border
-            // between the airborne and not.
-            Boolean transitionAllowed = event.getTimestamp().getTime() - lastTransitionTime.getTime() > MIN_TRANSITION_DELAY;
-            if (airborne != null && !transitionAllowed) return;
-
-            // Determine if the plane is in the air. If we can't determine, just return
-            Boolean previouslyAirborne = airborne;
-            airborne = isFlightAirborne();
-            if (airborne == null) return;
-
-            // If we're on the ground and haven't set our start-airport yet, do so
-            if (!airborne && mostRecentlyVisited == null) mostRecentlyVisited = latestClosestAirport;
-
-            // If we've switched from (airborne -> landed) or vice-versa, handle it
-            if (previouslyAirborne != null && previouslyAirborne != airborne) {
-                lastTransitionTime = event.getTimestamp();
-                handleFlightTransition(previouslyAirborne);
-            }
+            updateAirborneStatus(event);
+            if (!stateListeners.isEmpty()) publishState(event);
         }
 
         // TODO:
@@ -145,9 +156,67 @@ public class PlaneTracker {
             flight.setArrivalTime(flightStatsTracker.getLatestTime());
         }
 
+        if (trackRecorder != null) flight.setTrack(trackRecorder.getTrack());
+
         return flight;
     }
 
+    /**
+     * Updates the nearest airport and moving average with an event that has a location, and then
+     * decides whether the plane has transitioned between airborne and landed.
+     * @param event The latest AdsbEvent for this plane, which has a valid lat/long.
+     */
+    private void updateAirborneStatus(AdsbEvent event) {
+        // Get the nearest airport + distance to the event, and update the moving average
+        latestClosestAirport = airports.getClosestAirport(event.getGeoCoordinate());
+        latestDistanceToAirport = latestClosestAirport.getGeoCoordinate().getDistanceTo(event.getGeoCoordinate());
+        averageDistanceToAirport.ingest(latestDistanceToAirport, event.getTimestamp().getTime());
+
+        // See if we've recently transition between airborne/not. If so, don't transition again for
+        // MIN_TRANSITION_DELAY. This prevents the case where a plane is traveling on the border
+        // between the airborne and not.
+        Boolean transitionAllowed = event.getTimestamp().getTime() - lastTransitionTime.getTime() > MIN_TRANSITION_DELAY;
+        if (airborne != null && !transitionAllowed) return;
+
+        // Determine if the plane is in the air. If we can't determine, just return
+        Boolean previouslyAirborne = airborne;
+        airborne = isFlightAirborne();
+        if (airborne == null) return;
+
+        // If we're on the ground and haven't set our start-airport yet, do so
+        if (!airborne && mostRecentlyVisited == null) mostRecentlyVisited = latestClosestAirport;
+
+        // If we've switched from (airborne -> landed) or vice-versa, handle it
+        if (previouslyAirborne != null && previouslyAirborne != airborne) {
+            lastTransitionTime = event.getTimestamp();
+            handleFlightTransition(previouslyAirborne);
+        }
+    }
+
+    /**
+     * Publishes an immutable snapshot of the plane's current state to the state listeners.
+     * @param event The latest AdsbEvent for this plane, which has a valid lat/long.
+     */
+    private void publishState(AdsbEvent event) {
+        AircraftState state = new AircraftState(
+                planeId,
+                event.getTimestamp().getTime(),
+                event.getLatitude(),
+                event.getLongitude(),
+                toNullable(flightStatsTracker.getLatestAltitudeValue()),
+                toNullable(flightStatsTracker.getLatestSpeedValue()),
+                airborne,
+                latestClosestAirport.getIdentifier(),
+                latestDistanceToAirport
+        );
+        for (PlaneTrackerListener listener : stateListeners) listener.onStateUpdated(state);
+    }
+
+    // AircraftState uses null (rather than NaN) for values that aren't known yet
+    private static Double toNullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
     /**
      * Based on the most recent data, determines if the plane is currently airborne. Criteria are:
      * - Average location in last MOVING_AVERAGE_TIME_WINDOW ms is within AIRPORT_DISTANCE_THRESHOLD of an airport.
@@ -157,11 +226,13 @@ public class PlaneTracker {
     private Boolean isFlightAirborne() {
         // Compute our 3 criteria for being airborne
         Boolean nearAirport = averageDistanceToAirport.getAverageValue() <= AIRPORT_DISTANCE_THRESHOLD;
-        Boolean low_altitude = (flightStatsTracker.getLatestAltitude() != null) ?
-                flightStatsTracker.getLatestAltitude() - latestClosestAirport.getElevation() < ALTITUDE_DIFFERENCE_THRESHOLD :
+        double latestAltitude = flightStatsTracker.getLatestAltitudeValue();
+        double latestSpeed = flightStatsTracker.getLatestSpeedValue();
+        Boolean low_altitude = !Double.isNaN(latestAltitude) ?
+                latestAltitude - latestClosestAirport.getElevation() < ALTITUDE_DIFFERENCE_THRESHOLD :
                 null;
-        Boolean low_speed = (flightStatsTracker.getLatestSpeed() != null) ?
-                flightStatsTracker.getLatestSpeed() < SPEED_THRESHOLD :
+        Boolean low_speed = !Double.isNaN(latestSpeed) ?
+                latestSpeed < SPEED_THRESHOLD :
                 null;
 
         // Case 1: If low altitude, return false
@@ -198,14 +269,22 @@ public class PlaneTracker {
         // Note that (previouslyAirborne = null) implies we don't know if we are airborne or grounded yet.
         if (airborne && previouslyAirborne != null && !previouslyAirborne) {
             flightStatsTracker.reset();
+            if (trackRecorder != null) trackRecorder.reset();
+            if (!listeners.isEmpty()) {
+                Flight departure = generateFlight();
+                for (PlaneTrackerListener listener : listeners) listener.onFlightDeparted(departure);
+            }
         }
 
         // If we just 'landed' after having been airborne, end the flight, and create the Flight object
         if (!airborne && previouslyAirborne != null && previouslyAirborne) {
             Flight flight = generateFlight();
             flights.add(flight);
+            for (PlaneTrackerListener listener : listeners) listener.onFlightCompleted(flight);
             // Update this AFTER generating the flight
             mostRecentlyVisited = latestClosestAirport;
+            // Start the next track from where we landed, so we don't hold on to this one
+            if (trackRecorder != null) trackRecorder.reset();
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.paragonintel.codingexercise.Flight;
+
+/**
+ * Callback interface for components that want to observe a PlaneTracker as it runs,
+ * rather than waiting for getFlights() once all of the events have been processed.
+ * Listeners are invoked on the thread that is feeding events to the PlaneTracker.
+ */
+public interface PlaneTrackerListener {
+
+    /**
+     * Invoked when a plane takes off, with a departure-only Flight (no arrival airport/time yet).
+     * @param flight The Flight that was just started.
+     */
+    default void onFlightDeparted(Flight flight) {}
+
+    /**
+     * Invoked when a plane lands after having been airborne, with the completed Flight.
+     * @param flight The Flight that was just completed.
+     */
+    void onFlightCompleted(Flight flight);
+
+    /**
+     * Invoked after every event with a location, with a snapshot of the plane's current state.
+     * Only called on listeners registered with addStateListener(), not addListener().
+     * @param state Immutable snapshot of the plane's latest position and status.
+     */
+    default void onStateUpdated(AircraftState state) {}
+}
@@ -0,0 +1,92 @@
+package com.paragonintel.codingexercise.Live;
+
+import com.paragonintel.codingexercise.Flight.AircraftState;
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Flight.PlaneTrackerListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the latest AircraftState of every tracked plane, so it can be
+ * queried while the PlaneTrackers are still running. Since each AircraftState is immutable, publishing
+ * a new one is just a reference swap in a ConcurrentHashMap: readers never block the ingest thread,
+ * and always see a complete snapshot for each aircraft.
+ */
+public class LiveAircraftRegistry implements PlaneTrackerListener {
+
+    private final Map<String, AircraftState> states; // Latest snapshot per aircraft
+    private final Map<String, Integer> cellsByAircraft; // Grid cell each aircraft was last placed in
+    private final SpatialGrid grid; // Spatial index of the latest positions
+
+    public LiveAircraftRegistry() {
+        this.states = new ConcurrentHashMap<>();
+        this.cellsByAircraft = new ConcurrentHashMap<>();
+        this.grid = new SpatialGrid();
+    }
+
+    @Override
+    public void onFlightCompleted(Flight flight) {
+        // Completed flights are handled by the FlightStore; we only care about current state
+    }
+
+    @Override
+    public void onStateUpdated(AircraftState state) {
+        String aircraftId = state.getAircraftIdentifier();
+
+        // Publish the snapshot before moving it in the grid, so a grid hit always has a state
+        states.put(aircraftId, state);
+        Integer previousCell = cellsByAircraft.get(aircraftId);
+        Integer cell = grid.move(aircraftId, previousCell, state.getLatitude(), state.getLongitude());
+        if (!cell.equals(previousCell)) cellsByAircraft.put(aircraftId, cell);
+    }
+
+    /**
+     * Returns the latest state of the aircraft, or null if it hasn't reported a location yet.
+     */
+    public AircraftState getState(String aircraftId) {
+        if (aircraftId == null) return null;
+        return states.get(aircraftId);
+    }
+
+    /**
+     * Returns the latest state of every aircraft currently believed to be airborne.
+     */
+    public List<AircraftState> getAirborne() {
+        List<AircraftState> results = new ArrayList<>();
+        for (AircraftState state : states.values()) {
+            if (Boolean.TRUE.equals(state.getAirborne())) results.add(state);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the latest state of every aircraft whose latest position is within the bounding box.
+     * Bounds are inclusive, and boxes crossing the antimeridian are not supported.
+     */
+    public List<AircraftState> getWithinBounds(double minLatitude, double maxLatitude,
+                                               double minLongitude, double maxLongitude) {
+        List<AircraftState> results = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        grid.forEachCandidate(minLatitude, maxLatitude, minLongitude, maxLongitude, aircraftId -> {
+            if (!seen.add(aircraftId)) return;
+
+            // The grid is coarse (and may briefly lag a move), so check the snapshot itself
+            AircraftState state = states.get(aircraftId);
+            if (state != null &&
+                state.getLatitude() >= minLatitude && state.getLatitude() <= maxLatitude &&
+                state.getLongitude() >= minLongitude && state.getLongitude() <= maxLongitude) {
+                results.add(state);
+            }
+        });
+        return results;
+    }
+
+    public int size() {
+        return states.size();
+    }
+}
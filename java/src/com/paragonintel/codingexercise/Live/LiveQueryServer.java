@@ -0,0 +1,119 @@
+package com.paragonintel.codingexercise.Live;
+
+import com.google.gson.Gson;
+import com.paragonintel.codingexercise.Flight.AircraftState;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small local HTTP service for querying the LiveAircraftRegistry while events are being processed.
+ * All responses are JSON. Supported requests:
+ * - GET /aircraft/{id}    Latest state of a single aircraft
+ * - GET /airborne         Latest state of every aircraft currently airborne
+ * - GET /bbox?minLat=..&maxLat=..&minLon=..&maxLon=..   Aircraft within a bounding box
+ */
+public class LiveQueryServer {
+
+    private static Logger logger = Logger.getLogger(LiveQueryServer.class.getName());
+
+    private static final int HANDLER_THREADS = 4;
+
+    private final LiveAircraftRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Gson gson;
+
+    public LiveQueryServer(LiveAircraftRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.gson = new Gson();
+        this.executor = Executors.newFixedThreadPool(HANDLER_THREADS);
+
+        // Only listen on the loopback address, since this is meant for local use
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/aircraft/", this::handleAircraft);
+        this.server.createContext("/airborne", this::handleAirborne);
+        this.server.createContext("/bbox", this::handleBoundingBox);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        logger.log(Level.INFO, "Live query server listening on " + server.getAddress());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handleAircraft(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String aircraftId = path.substring("/aircraft/".length());
+        AircraftState state = registry.getState(aircraftId);
+        if (state == null) {
+            sendError(exchange, 404, "No state for aircraft: " + aircraftId);
+        } else {
+            sendJson(exchange, 200, state);
+        }
+    }
+
+    private void handleAirborne(HttpExchange exchange) throws IOException {
+        sendJson(exchange, 200, registry.getAirborne());
+    }
+
+    private void handleBoundingBox(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        try {
+            double minLatitude = Double.parseDouble(params.get("minLat"));
+            double maxLatitude = Double.parseDouble(params.get("maxLat"));
+            double minLongitude = Double.parseDouble(params.get("minLon"));
+            double maxLongitude = Double.parseDouble(params.get("maxLon"));
+            sendJson(exchange, 200, registry.getWithinBounds(minLatitude, maxLatitude, minLongitude, maxLongitude));
+        } catch (NullPointerException | NumberFormatException e) {
+            sendError(exchange, 400, "Expected numeric minLat, maxLat, minLon and maxLon parameters");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) continue;
+            params.put(
+                    URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8)
+            );
+        }
+        return params;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", message);
+        sendJson(exchange, status, body);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object payload) throws IOException {
+        byte[] body = gson.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.paragonintel.codingexercise.Live;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * This class buckets aircraft IDs into fixed-size lat/long cells, so a
+ * bounding-box query only has to look at the cells overlapping the box instead of every aircraft.
+ * Aircraft are only moved between cells when they cross a cell boundary, and all of the
+ * underlying sets are concurrent, so lookups never block updates (or vice versa).
+ */
+class SpatialGrid {
+
+    private static final double CELL_SIZE_DEGREES = 1D;
+    private static final int LONGITUDE_CELLS = (int) Math.ceil(360D / CELL_SIZE_DEGREES);
+
+    private final Map<Integer, Set<String>> cells;
+
+    SpatialGrid() {
+        this.cells = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Moves an aircraft from its previous cell to the cell for its new coordinate. The aircraft is
+     * added to the new cell before being removed from the old one, so a concurrent query sees it
+     * at least once (callers are expected to de-duplicate).
+     * @param aircraftId ID of the aircraft being moved.
+     * @param previousCell The cell returned by the last call for this aircraft, or null if none.
+     * @param latitude New latitude of the aircraft.
+     * @param longitude New longitude of the aircraft.
+     * @return The cell the aircraft is now in.
+     */
+    Integer move(String aircraftId, Integer previousCell, double latitude, double longitude) {
+        Integer cell = getCell(latitude, longitude);
+        if (cell.equals(previousCell)) return cell;
+
+        cells.computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet()).add(aircraftId);
+        if (previousCell != null) {
+            Set<String> previousMembers = cells.get(previousCell);
+            if (previousMembers != null) previousMembers.remove(aircraftId);
+        }
+        return cell;
+    }
+
+    /**
+     * Passes the ID of every aircraft in a cell overlapping the bounding box to the consumer. Since
+     * cells are coarser than the box, callers must still check each aircraft's actual coordinate.
+     */
+    void forEachCandidate(double minLatitude, double maxLatitude,
+                          double minLongitude, double maxLongitude, Consumer<String> consumer) {
+        int minRow = getRow(Math.max(minLatitude, -90D));
+        int maxRow = getRow(Math.min(maxLatitude, 90D));
+        int minColumn = getColumn(Math.max(minLongitude, -180D));
+        int maxColumn = getColumn(Math.min(maxLongitude, 180D));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Set<String> members = cells.getOrDefault(row * LONGITUDE_CELLS + column, Collections.emptySet());
+                members.forEach(consumer);
+            }
+        }
+    }
+
+    private static Integer getCell(double latitude, double longitude) {
+        return getRow(latitude) * LONGITUDE_CELLS + getColumn(longitude);
+    }
+
+    private static int getRow(double latitude) {
+        return (int) Math.floor((latitude + 90D) / CELL_SIZE_DEGREES);
+    }
+
+    private static int getColumn(double longitude) {
+        return Math.min((int) Math.floor((longitude + 180D) / CELL_SIZE_DEGREES), LONGITUDE_CELLS - 1);
+    }
+}
@@ -4,17 +4,20 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
+import com.paragonintel.codingexercise.Aggregation.AirportTrafficAggregator;
 import com.paragonintel.codingexercise.Airports.AirportCollection;
 import com.paragonintel.codingexercise.Events.AdsbEvent;
 import com.paragonintel.codingexercise.Flight.Flight;
-import com.paragonintel.codingexercise.Flight.PlaneTracker;
+import com.paragonintel.codingexercise.Flight.FlightExtractor;
+import com.paragonintel.codingexercise.Live.LiveAircraftRegistry;
+import com.paragonintel.codingexercise.Live.LiveQueryServer;
+import com.paragonintel.codingexercise.Replay.PartitionedReplayCoordinator;
+import com.paragonintel.codingexercise.Store.FlightStore;
 
 import java.io.*;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,9 +25,22 @@ import java.util.logging.Logger;
  * Main execution class, which performs the following steps:
  * - Loads the event/airport data into data structures.
  * - Processes the events 1 at a time to emulate a stream.
- * - Retrieve the Flights after processing the events.
+ * - Feeds completed Flights into an indexed FlightStore as they are detected.
+ * - Aggregates per-airport departure/arrival traffic as flights start and end.
+ * - Optionally (with --query-port {port}) serves the live aircraft state over local HTTP. The server is
+ *   stopped once the results are saved, unless --keep-serving is also passed.
+ * - Optionally (with --record-tracks {toleranceMiles}) records a compressed path for each Flight.
+ * - Retrieve the Flights after processing the events, sorted by departure time then aircraft.
  * - Save the Flights as JSON to:
  *      CodingExercise/out/production/codingExercise/com/paragonintel/codingexercise/Resources/{FLIGHT_OUTPUT_FILE_NAME}
+ * - Save the airport traffic aggregates as JSON to {TRAFFIC_OUTPUT_FILE_NAME} in the same directory.
+ *
+ * With --workers {count}, the events are instead partitioned by aircraft across that many local worker
+ * processes (see PartitionedReplayCoordinator), which produces byte-identical flight output. The traffic
+ * aggregates are then fed from the merged Flights in departure order, rather than as the events arrive,
+ * so they can differ from a single-process run: the sliding windows and the busiest-airports sketch (once
+ * more airports than it tracks have been seen) depend on the order they're fed in. The per-airport totals
+ * and distinct-aircraft estimates are the same either way.
  */
 public class Main {
 
@@ -35,37 +51,125 @@ public class Main {
     private static final String AIRPORT_DATA_FILE_NAME = "airports.json";
     private static final String EVENT_DATA_FILE_NAME = "events.txt";
     private static final String FLIGHT_OUTPUT_FILE_NAME = "flight_results.json";
+    private static final String TRAFFIC_OUTPUT_FILE_NAME = "traffic_aggregates.json";
+    private static final String QUERY_PORT_ARG = "--query-port";
+    private static final String RECORD_TRACKS_ARG = "--record-tracks";
+    private static final String WORKERS_ARG = "--workers";
+    private static final String KEEP_SERVING_ARG = "--keep-serving";
 
     /**
      * Performs the primary execution of the Main class, computing and saving values.
      */
     public static void main(String[] args) throws Exception {
-        // Step 1: Load the data
-        AirportCollection airports = loadAirportCollection(getResourceFilePath(AIRPORT_DATA_FILE_NAME));
-        List<AdsbEvent> events = loadEventData(getResourceFilePath(EVENT_DATA_FILE_NAME));
-
-        // Step 2: Process the events sequentially as a stream
-        Map<String, PlaneTracker> planeTrackerMap = new HashMap<>();
-        for (AdsbEvent event : events) {
-            String planeId = event.getIdentifier();
-            if (!planeTrackerMap.containsKey(planeId)) {
-                planeTrackerMap.put(planeId, new PlaneTracker(planeId, airports));
+        String queryPortArg = getArgValue(args, QUERY_PORT_ARG);
+        Integer queryPort = (queryPortArg != null) ? Integer.parseInt(queryPortArg) : null;
+
+        // If requested, record each flight's path, simplified to the given tolerance (0 keeps every point)
+        String trackToleranceArg = getArgValue(args, RECORD_TRACKS_ARG);
+        Double trackTolerance = (trackToleranceArg != null) ? Double.parseDouble(trackToleranceArg) : null;
+
+        String workerCountArg = getArgValue(args, WORKERS_ARG);
+        Integer workerCount = (workerCountArg != null) ? Integer.parseInt(workerCountArg) : null;
+
+        FlightStore flightStore = new FlightStore();
+        AirportTrafficAggregator trafficAggregator = new AirportTrafficAggregator();
+        LiveQueryServer liveServer = null;
+        List<Flight> flights;
+
+        // The live server's threads would keep the process alive, so it's stopped once we're done
+        // (or have failed), unless asked to keep the final state queryable
+        boolean keepServing = hasArg(args, KEEP_SERVING_ARG);
+        boolean completed = false;
+        try {
+            if (workerCount != null) {
+                // Steps 1-3 happen in the worker processes, which only return the Flights, so the store and
+                // aggregates are fed from the merged results instead. Live state isn't available in this mode.
+                // Note the aggregates see flights in departure order here, not event order (see class doc).
+                if (queryPort != null) logger.log(Level.WARNING, QUERY_PORT_ARG + " is ignored with " + WORKERS_ARG);
+                flights = new PartitionedReplayCoordinator(workerCount, getResourceFilePath(AIRPORT_DATA_FILE_NAME), trackTolerance)
+                        .run(getResourceFilePath(EVENT_DATA_FILE_NAME));
+                for (Flight flight : flights) {
+                    if (flight.getDepartureAirport() != null) trafficAggregator.onFlightDeparted(flight);
+                    if (flight.getArrivalAirport() != null) {
+                        flightStore.onFlightCompleted(flight);
+                        trafficAggregator.onFlightCompleted(flight);
+                    }
+                }
+            } else {
+                // Step 1: Load the data
+                AirportCollection airports = loadAirportCollection(getResourceFilePath(AIRPORT_DATA_FILE_NAME));
+                List<AdsbEvent> events = loadEventData(getResourceFilePath(EVENT_DATA_FILE_NAME));
+
+                FlightExtractor extractor = new FlightExtractor(airports);
+                extractor.addListener(flightStore);
+                extractor.addListener(trafficAggregator);
+                if (trackTolerance != null) extractor.enableTrackRecording(trackTolerance);
+
+                // If requested, start serving the live aircraft state while the events are processed
+                if (queryPort != null) {
+                    LiveAircraftRegistry liveRegistry = new LiveAircraftRegistry();
+                    extractor.addStateListener(liveRegistry);
+                    liveServer = new LiveQueryServer(liveRegistry, queryPort);
+                    liveServer.start();
+                }
+
+                // Step 2: Process the events sequentially as a stream, storing/aggregating flights as they happen
+                for (AdsbEvent event : events) {
+                    extractor.processEvent(event);
+                }
+
+                // Step 3: Request the Flights from each PlaneTracker
+                flights = extractor.getFlights();
+            }
+
+            logger.log(Level.INFO, "Stored " + flightStore.size() + " completed flights");
+
+            // Step 4: Output the results as JSON
+            Gson serializer = new GsonBuilder().setPrettyPrinting().create();
+            saveJsonToFile(
+                    serializer.toJson(flights),
+                    getResourceFilePath(FLIGHT_OUTPUT_FILE_NAME)
+            );
+            saveJsonToFile(
+                    serializer.toJson(trafficAggregator.flush()),
+                    getResourceFilePath(TRAFFIC_OUTPUT_FILE_NAME)
+            );
+            completed = true;
+        } finally {
+            if (liveServer != null) {
+                if (keepServing && completed) {
+                    logger.log(Level.INFO, "Processing complete; live query server still running until killed");
+                } else {
+                    liveServer.stop();
+                }
             }
-            planeTrackerMap.get(planeId).processEvent(event);
         }
+    }
 
-        // Step 3: Request the Flights from each PlaneTracker
-        List<Flight> flights = new ArrayList<>();
-        planeTrackerMap.values()
-                .stream()
-                .forEach(planeTracker -> flights.addAll(planeTracker.getFlights()));
-
-        // Step 4: Output the results as JSON
-        Gson serializer = new GsonBuilder().setPrettyPrinting().create();
-        saveJsonToFile(
-                serializer.toJson(flights),
-                getResourceFilePath(FLIGHT_OUTPUT_FILE_NAME)
-        );
+    /**
+     * Looks for an optional '{name}' flag argument.
+     * @param args Command-line arguments passed to main.
+     * @param name Name of the argument, e.g. '--keep-serving'.
+     * @return Whether the argument was passed.
+     */
+    private static boolean hasArg(String[] args, String name) {
+        for (String arg : args) {
+            if (name.equals(arg)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Looks for an optional '{name} {value}' argument.
+     * @param args Command-line arguments passed to main.
+     * @param name Name of the argument, e.g. '--query-port'.
+     * @return The value following the argument name, or null if it wasn't passed.
+     */
+    private static String getArgValue(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) return args[i + 1];
+        }
+        return null;
     }
 
     /**
@@ -0,0 +1,35 @@
+package com.paragonintel.codingexercise.Replay;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.paragonintel.codingexercise.Flight.Flight;
+
+import java.util.Date;
+
+/**
+ * Line-based format used by replay workers to stream Flights back to the coordinator: one compact
+ * JSON Flight per line. Dates are written as epoch milliseconds, since Gson's default date format
+ * drops the milliseconds, and the coordinator needs exact values to reproduce the single-process output.
+ */
+final class FlightWireFormat {
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Date.class, (JsonSerializer<Date>) (date, type, context) ->
+                    new JsonPrimitive(date.getTime()))
+            .registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, type, context) ->
+                    new Date(json.getAsLong()))
+            .create();
+
+    private FlightWireFormat() {}
+
+    static String toLine(Flight flight) {
+        return gson.toJson(flight);
+    }
+
+    static Flight fromLine(String line) {
+        return gson.fromJson(line, Flight.class);
+    }
+}
@@ -0,0 +1,205 @@
+package com.paragonintel.codingexercise.Replay;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.paragonintel.codingexercise.Flight.Flight;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class spreads a large replay across several local worker processes. Events
+ * are partitioned by a hash of the aircraft identifier, so every event for a plane goes to the same
+ * ReplayWorker, in its original order. Each worker therefore produces exactly the Flights a single
+ * process would have for its planes, and the coordinator merges them back into Flight.DEPARTURE_ORDER,
+ * which gives the same list (and so byte-identical output) as a single-process run.
+ *
+ * Only the Flights are returned, so anything that consumed departures/arrivals as they happened (e.g.
+ * AirportTrafficAggregator) has to be fed from the merged list instead, i.e. in departure order. That
+ * order is deterministic, but isn't the order a single process would have seen them in, so results that
+ * depend on input order can differ from a single-process run.
+ */
+public class PartitionedReplayCoordinator {
+
+    private static Logger logger = Logger.getLogger(PartitionedReplayCoordinator.class.getName());
+
+    private final int workerCount;
+    private final String airportsFilePath;
+    private final Double trackToleranceMiles; // Passed on to the workers, if set
+
+    public PartitionedReplayCoordinator(int workerCount, String airportsFilePath, Double trackToleranceMiles) {
+        if (workerCount < 1) throw new IllegalArgumentException("Worker count must be at least 1: " + workerCount);
+        this.workerCount = workerCount;
+        this.airportsFilePath = airportsFilePath;
+        this.trackToleranceMiles = trackToleranceMiles;
+    }
+
+    /**
+     * Replays the events file across the worker processes, and returns the merged Flights.
+     * @param eventsFilePath Fully qualified path to the event data file (one JSON AdsbEvent per line).
+     * @return All Flights, sorted by Flight.DEPARTURE_ORDER.
+     * @throws IOException If the events can't be read, or a worker fails.
+     */
+    public List<Flight> run(String eventsFilePath) throws IOException, InterruptedException {
+        List<Process> workers = new ArrayList<>();
+        List<Writer> workerInputs = new ArrayList<>();
+        List<WorkerOutputReader> workerOutputs = new ArrayList<>();
+
+        try {
+            // Start the workers, and start reading their output before sending anything, so that
+            // a worker blocked on a full stdout pipe can't stall us
+            for (int i = 0; i < workerCount; i++) {
+                Process worker = startWorker();
+                workers.add(worker);
+                workerInputs.add(new BufferedWriter(new OutputStreamWriter(worker.getOutputStream(), StandardCharsets.UTF_8)));
+
+                WorkerOutputReader outputReader = new WorkerOutputReader(worker.getInputStream());
+                outputReader.start();
+                workerOutputs.add(outputReader);
+            }
+
+            partitionEvents(eventsFilePath, workerInputs);
+            for (Writer workerInput : workerInputs) workerInput.close();
+
+            for (int i = 0; i < workerCount; i++) {
+                workerOutputs.get(i).join();
+                int exitCode = workers.get(i).waitFor();
+                if (exitCode != 0) throw new IOException("Replay worker " + i + " exited with code " + exitCode);
+                if (workerOutputs.get(i).failure != null) throw workerOutputs.get(i).failure;
+            }
+        } finally {
+            for (Process worker : workers) worker.destroy();
+        }
+
+        return merge(workerOutputs);
+    }
+
+    private Process startWorker() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ReplayWorker.class.getName());
+        command.add(airportsFilePath);
+        if (trackToleranceMiles != null) {
+            command.add(ReplayWorker.RECORD_TRACKS_ARG);
+            command.add(trackToleranceMiles.toString());
+        }
+
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Streams the events file, sending each (unparsed) line to the worker that owns its aircraft.
+     */
+    private void partitionEvents(String eventsFilePath, List<Writer> workerInputs) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(eventsFilePath, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                String planeId;
+                try {
+                    planeId = readIdentifier(line);
+                } catch (JsonSyntaxException jse) {
+                    logger.log(Level.SEVERE, "Failed to parse AdsbEvent from JSON: " + line);
+                    throw jse;
+                }
+
+                Writer workerInput = workerInputs.get(Math.floorMod(planeId.hashCode(), workerCount));
+                workerInput.write(line);
+                workerInput.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Pulls the aircraft identifier out of an AdsbEvent JSON line, without parsing the rest of it. Fully
+     * parsing each event here (dates especially) would cost as much as the workers' own parsing, and
+     * since it's single-threaded, would cap the speedup of adding workers. The identifier is normally
+     * the first field, so this usually reads only a few characters.
+     * @throws JsonSyntaxException If the line isn't a JSON object, or has no identifier.
+     */
+    static String readIdentifier(String line) {
+        try (JsonReader reader = new JsonReader(new StringReader(line))) {
+            reader.setLenient(true); // Same as Gson.fromJson(), which the workers use
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("identifier") && reader.peek() == JsonToken.STRING) {
+                    return reader.nextString();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+        throw new JsonSyntaxException("AdsbEvent has no identifier: " + line);
+    }
+
+    /**
+     * K-way merges the workers' (already sorted) Flights into a single sorted list.
+     */
+    private static List<Flight> merge(List<WorkerOutputReader> workerOutputs) {
+        // Each queue entry is {worker index, position in that worker's list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> Flight.DEPARTURE_ORDER.compare(
+                workerOutputs.get(a[0]).flights.get(a[1]),
+                workerOutputs.get(b[0]).flights.get(b[1])
+        ));
+        for (int i = 0; i < workerOutputs.size(); i++) {
+            if (!workerOutputs.get(i).flights.isEmpty()) heads.add(new int[]{i, 0});
+        }
+
+        List<Flight> merged = new ArrayList<>();
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Flight> flights = workerOutputs.get(head[0]).flights;
+            merged.add(flights.get(head[1]));
+            if (head[1] + 1 < flights.size()) heads.add(new int[]{head[0], head[1] + 1});
+        }
+        return merged;
+    }
+
+    /**
+     * Reads the Flights a worker streams back on its stdout. Any failure is kept in 'failure',
+     * to be rethrown by the coordinator once the worker has exited.
+     */
+    private static class WorkerOutputReader extends Thread {
+        private final InputStream input;
+        private final List<Flight> flights;
+        private IOException failure;
+
+        WorkerOutputReader(InputStream input) {
+            this.input = input;
+            this.flights = new ArrayList<>();
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // Once something has gone wrong, keep draining the stream so that the worker
+                    // can't block on a full pipe, and the coordinator can report the failure
+                    if (failure != null) continue;
+                    try {
+                        flights.add(FlightWireFormat.fromLine(line));
+                    } catch (RuntimeException re) {
+                        failure = new IOException("Failed to parse Flight from replay worker: " + line, re);
+                    }
+                }
+            } catch (IOException ioe) {
+                if (failure == null) failure = ioe;
+            }
+        }
+    }
+}
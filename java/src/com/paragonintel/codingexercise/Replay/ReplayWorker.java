@@ -0,0 +1,55 @@
+package com.paragonintel.codingexercise.Replay;
+
+import com.google.gson.JsonSyntaxException;
+import com.paragonintel.codingexercise.Airports.AirportCollection;
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Flight.FlightExtractor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point for a worker process started by PartitionedReplayCoordinator. Reads AdsbEvents (one JSON
+ * object per line) from stdin, runs them through a FlightExtractor exactly as Main does, and once stdin
+ * is closed, writes the resulting Flights to stdout in FlightWireFormat, sorted by Flight.DEPARTURE_ORDER.
+ *
+ * Arguments: {airportsFilePath} [--record-tracks {toleranceMiles}]
+ */
+public class ReplayWorker {
+
+    private static Logger logger = Logger.getLogger(ReplayWorker.class.getName());
+
+    static final String RECORD_TRACKS_ARG = "--record-tracks";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ReplayWorker {airportsFilePath} [--record-tracks {toleranceMiles}]");
+        }
+
+        FlightExtractor extractor = new FlightExtractor(AirportCollection.loadFromFile(args[0]));
+        if (args.length >= 3 && RECORD_TRACKS_ARG.equals(args[1])) {
+            extractor.enableTrackRecording(Double.parseDouble(args[2]));
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            try {
+                extractor.processEvent(AdsbEvent.fromJson(line));
+            } catch (JsonSyntaxException jse) {
+                logger.log(Level.SEVERE, "Failed to parse AdsbEvent from JSON: " + line);
+                throw jse;
+            }
+        }
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            for (Flight flight : extractor.getFlights()) {
+                writer.write(FlightWireFormat.toLine(flight));
+                writer.write('\n');
+            }
+        }
+    }
+}
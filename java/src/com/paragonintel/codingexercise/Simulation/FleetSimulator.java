@@ -0,0 +1,376 @@
+package com.paragonintel.codingexercise.Simulation;
+
+import com.paragonintel.codingexercise.Airports.Airport;
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Location.GeoCoordinate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * This class generates a realistic stream of ADS-B events for a fleet of aircraft
+ * flying between real airports, along with the flights that actually happened (the ground truth).
+ *
+ * Each aircraft repeatedly parks, taxis out, climbs to a cruise altitude, cruises towards a destination,
+ * descends, lands and taxis in. Events are generated lazily, one report at a time, so the stream can be
+ * much longer than would fit in memory. The stream is made messy the way receiver networks are:
+ * - Dropouts: an aircraft occasionally goes unheard for a while.
+ * - Missing fields: some events have no position.
+ * - Duplicates: some events are delivered twice.
+ * - Out-of-order: some events are delivered late, after events with later timestamps.
+ */
+public class FleetSimulator {
+
+    private static final double MILES_PER_KNOT_HOUR = 1.15078;
+
+    // Time between reports, in ms (each report is jittered by up to +/- REPORT_JITTER)
+    private static final long AIRBORNE_REPORT_INTERVAL = 10 * 1000L;
+    private static final long GROUND_REPORT_INTERVAL = 30 * 1000L;
+    private static final long REPORT_JITTER = 2 * 1000L;
+
+    // Flight profile
+    private static final double TAXI_SPEED = 15D;  // knots
+    private static final double CLIMB_SPEED = 250D;  // knots
+    private static final double CRUISE_SPEED = 430D;  // knots
+    private static final double DESCENT_SPEED = 280D;  // knots
+    private static final double APPROACH_SPEED = 140D;  // knots, below APPROACH_HEIGHT
+    private static final double APPROACH_HEIGHT = 3000D;  // ft above the airport
+    private static final double CLIMB_RATE = 2200D;  // ft/min
+    private static final double DESCENT_RATE = 1800D;  // ft/min
+    private static final double MIN_CRUISE_ALTITUDE = 18000D;  // ft
+    private static final double MAX_CRUISE_ALTITUDE = 38000D;  // ft
+
+    // Leg lengths (miles) we try to pick destinations within
+    private static final double MIN_LEG_DISTANCE = 80D;
+    private static final double MAX_LEG_DISTANCE = 900D;
+    private static final int DESTINATION_ATTEMPTS = 20;
+
+    // Time on the ground, in minutes
+    private static final int MIN_TAXI_MINUTES = 4;
+    private static final int MAX_TAXI_MINUTES = 15;
+    private static final int MIN_TURNAROUND_MINUTES = 30;
+    private static final int MAX_TURNAROUND_MINUTES = 240;
+
+    // Dropouts last between these many minutes
+    private static final int MIN_DROPOUT_MINUTES = 1;
+    private static final int MAX_DROPOUT_MINUTES = 20;
+
+    // Late/duplicate events are delivered up to this long after their timestamp
+    private static final long MAX_DELIVERY_DELAY = 30 * 1000L;
+
+    private enum Phase { PARKED, TAXI_OUT, CLIMB, CRUISE, DESCENT, TAXI_IN }
+
+    private static class SimulatedAircraft {
+        String identifier;
+        Phase phase;
+        Airport origin;
+        Airport destination;
+
+        double latitude;
+        double longitude;
+        double altitude;
+        double speed;
+        double heading;
+        double cruiseAltitude;
+        double legDistance;
+        double distanceFlown;
+
+        long lastUpdateTime;
+        long nextReportTime;
+        long phaseEndTime;  // When PARKED/TAXI phases end
+        long takeoffTime;
+        long dropoutEndTime;
+    }
+
+    // An event waiting to be delivered. Ties on release time are broken by creation order.
+    private static class PendingEvent {
+        final long releaseTime;
+        final long sequence;
+        final AdsbEvent event;
+
+        PendingEvent(long releaseTime, long sequence, AdsbEvent event) {
+            this.releaseTime = releaseTime;
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    private final Airport[] airports;
+    private final long endTime;
+    private final Random random;
+    private final PriorityQueue<SimulatedAircraft> schedule; // Aircraft, by next report time
+    private final PriorityQueue<PendingEvent> deliveries; // Generated events, by release time
+    private List<Flight> groundTruth; // Legs completed since the last takeGroundTruth()
+
+    private double dropoutProbability = 0.002;  // Per report
+    private double missingPositionProbability = 0.02;
+    private double duplicateProbability = 0.01;
+    private double outOfOrderProbability = 0.01;
+
+    private long currentTime;
+    private long sequence;
+
+    /**
+     * @param airports Airports the fleet flies between.
+     * @param aircraftCount Number of aircraft in the fleet.
+     * @param startTime Simulated time to start at.
+     * @param durationMs Length of the simulation, in simulated ms.
+     * @param seed Random seed, so that runs are repeatable.
+     */
+    public FleetSimulator(Airport[] airports, int aircraftCount, Date startTime, long durationMs, long seed) {
+        this.airports = airports;
+        this.currentTime = startTime.getTime();
+        this.endTime = startTime.getTime() + durationMs;
+        this.random = new Random(seed);
+        this.schedule = new PriorityQueue<>(Math.max(1, aircraftCount),
+                (a, b) -> Long.compare(a.nextReportTime, b.nextReportTime));
+        this.deliveries = new PriorityQueue<>((a, b) -> (a.releaseTime != b.releaseTime) ?
+                Long.compare(a.releaseTime, b.releaseTime) :
+                Long.compare(a.sequence, b.sequence));
+        this.groundTruth = new ArrayList<>();
+
+        // Start every aircraft parked somewhere, part-way through a turnaround so departures are staggered
+        for (int i = 0; i < aircraftCount; i++) {
+            SimulatedAircraft aircraft = new SimulatedAircraft();
+            aircraft.identifier = String.format("SIM%06d", i);
+            park(aircraft, airports[random.nextInt(airports.length)], currentTime);
+            aircraft.phaseEndTime = currentTime + randomMinutes(0, MAX_TURNAROUND_MINUTES);
+            aircraft.lastUpdateTime = currentTime;
+            aircraft.nextReportTime = currentTime + (long) (random.nextDouble() * GROUND_REPORT_INTERVAL);
+            schedule.add(aircraft);
+        }
+    }
+
+    public void setDropoutProbability(double dropoutProbability) {
+        this.dropoutProbability = dropoutProbability;
+    }
+
+    public void setMissingPositionProbability(double missingPositionProbability) {
+        this.missingPositionProbability = missingPositionProbability;
+    }
+
+    public void setDuplicateProbability(double duplicateProbability) {
+        this.duplicateProbability = duplicateProbability;
+    }
+
+    public void setOutOfOrderProbability(double outOfOrderProbability) {
+        this.outOfOrderProbability = outOfOrderProbability;
+    }
+
+    /**
+     * Returns the next event in delivery order, or null once the simulation has ended.
+     */
+    public AdsbEvent next() {
+        while (true) {
+            SimulatedAircraft aircraft = schedule.peek();
+            long nextReportTime = (aircraft != null && aircraft.nextReportTime < endTime) ?
+                    aircraft.nextReportTime : Long.MAX_VALUE;
+
+            PendingEvent pending = deliveries.peek();
+            if (pending != null && pending.releaseTime <= nextReportTime) {
+                currentTime = Math.max(currentTime, pending.releaseTime);
+                return deliveries.poll().event;
+            }
+            if (nextReportTime == Long.MAX_VALUE) return null;
+
+            schedule.poll();
+            currentTime = nextReportTime;
+            update(aircraft, currentTime);
+            report(aircraft, currentTime);
+
+            long interval = (aircraft.phase == Phase.PARKED || aircraft.phase == Phase.TAXI_OUT || aircraft.phase == Phase.TAXI_IN) ?
+                    GROUND_REPORT_INTERVAL : AIRBORNE_REPORT_INTERVAL;
+            aircraft.nextReportTime = currentTime + interval + (long) ((random.nextDouble() * 2 - 1) * REPORT_JITTER);
+            schedule.add(aircraft);
+        }
+    }
+
+    /**
+     * Returns the current simulated time: the delivery time of the most recently returned event.
+     */
+    public long getCurrentTime() {
+        return this.currentTime;
+    }
+
+    /**
+     * Returns the legs that have been completed (landed) since the last call, in the order they landed.
+     * They're then forgotten, so that a long simulation doesn't hold on to every leg it has flown.
+     */
+    public List<Flight> takeGroundTruth() {
+        if (groundTruth.isEmpty()) return Collections.emptyList();
+        List<Flight> completed = groundTruth;
+        groundTruth = new ArrayList<>();
+        return completed;
+    }
+
+    /**
+     * Advances the aircraft's flight profile to the given time.
+     */
+    private void update(SimulatedAircraft aircraft, long time) {
+        double elapsedMinutes = (time - aircraft.lastUpdateTime) / 60000D;
+        aircraft.lastUpdateTime = time;
+
+        switch (aircraft.phase) {
+            case PARKED:
+                if (time >= aircraft.phaseEndTime) {
+                    chooseDestination(aircraft);
+                    aircraft.phase = Phase.TAXI_OUT;
+                    aircraft.speed = TAXI_SPEED;
+                    aircraft.phaseEndTime = time + randomMinutes(MIN_TAXI_MINUTES, MAX_TAXI_MINUTES);
+                }
+                break;
+
+            case TAXI_OUT:
+                if (time >= aircraft.phaseEndTime) {
+                    aircraft.phase = Phase.CLIMB;
+                    aircraft.takeoffTime = time;
+                    aircraft.speed = CLIMB_SPEED;
+                }
+                break;
+
+            case CLIMB:
+                aircraft.altitude = Math.min(aircraft.cruiseAltitude, aircraft.altitude + CLIMB_RATE * elapsedMinutes);
+                fly(aircraft, CLIMB_SPEED, elapsedMinutes);
+                if (aircraft.altitude >= aircraft.cruiseAltitude) aircraft.phase = Phase.CRUISE;
+                if (getRemainingDistance(aircraft) <= getDescentDistance(aircraft)) aircraft.phase = Phase.DESCENT;
+                break;
+
+            case CRUISE:
+                fly(aircraft, CRUISE_SPEED, elapsedMinutes);
+                if (getRemainingDistance(aircraft) <= getDescentDistance(aircraft)) aircraft.phase = Phase.DESCENT;
+                break;
+
+            case DESCENT:
+                // Descend at whatever rate gets us to the airport elevation as we arrive over it
+                double height = aircraft.altitude - aircraft.destination.getElevation();
+                double speed = (height < APPROACH_HEIGHT) ? APPROACH_SPEED : DESCENT_SPEED;
+                double remainingMinutes = getRemainingDistance(aircraft) / (speed * MILES_PER_KNOT_HOUR) * 60D;
+                fly(aircraft, speed, elapsedMinutes);
+                aircraft.altitude -= (remainingMinutes <= elapsedMinutes) ? height : height * elapsedMinutes / remainingMinutes;
+
+                if (getRemainingDistance(aircraft) <= 0) land(aircraft, time);
+                break;
+
+            case TAXI_IN:
+                if (time >= aircraft.phaseEndTime) {
+                    park(aircraft, aircraft.destination, time);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Emits the aircraft's current state as an event, unless it's in a dropout.
+     */
+    private void report(SimulatedAircraft aircraft, long time) {
+        if (time < aircraft.dropoutEndTime) return;
+        if (random.nextDouble() < dropoutProbability) {
+            aircraft.dropoutEndTime = time + randomMinutes(MIN_DROPOUT_MINUTES, MAX_DROPOUT_MINUTES);
+            return;
+        }
+
+        AdsbEvent event = new AdsbEvent();
+        event.setIdentifier(aircraft.identifier);
+        event.setTimestamp(new Date(time));
+        event.setAltitude(Math.round(aircraft.altitude / 25D) * 25D);
+        event.setSpeed(Math.round(aircraft.speed));
+        event.setHeading(Math.round(aircraft.heading));
+        if (random.nextDouble() >= missingPositionProbability) {
+            event.setLatitude(aircraft.latitude + random.nextGaussian() * 1e-4);
+            event.setLongitude(aircraft.longitude + random.nextGaussian() * 1e-4);
+        }
+
+        long releaseTime = time;
+        if (random.nextDouble() < outOfOrderProbability) releaseTime += 1 + (long) (random.nextDouble() * MAX_DELIVERY_DELAY);
+        deliveries.add(new PendingEvent(releaseTime, sequence++, event));
+
+        if (random.nextDouble() < duplicateProbability) {
+            long duplicateReleaseTime = releaseTime + (long) (random.nextDouble() * MAX_DELIVERY_DELAY);
+            deliveries.add(new PendingEvent(duplicateReleaseTime, sequence++, event));
+        }
+    }
+
+    private void park(SimulatedAircraft aircraft, Airport airport, long time) {
+        aircraft.phase = Phase.PARKED;
+        aircraft.origin = airport;
+        aircraft.destination = null;
+        aircraft.latitude = airport.getLatitude();
+        aircraft.longitude = airport.getLongitude();
+        aircraft.altitude = airport.getElevation();
+        aircraft.speed = 0D;
+        aircraft.phaseEndTime = time + randomMinutes(MIN_TURNAROUND_MINUTES, MAX_TURNAROUND_MINUTES);
+    }
+
+    private void land(SimulatedAircraft aircraft, long time) {
+        aircraft.latitude = aircraft.destination.getLatitude();
+        aircraft.longitude = aircraft.destination.getLongitude();
+        aircraft.altitude = aircraft.destination.getElevation();
+        aircraft.speed = TAXI_SPEED;
+        aircraft.phase = Phase.TAXI_IN;
+        aircraft.phaseEndTime = time + randomMinutes(MIN_TAXI_MINUTES, MAX_TAXI_MINUTES);
+
+        Flight flight = new Flight();
+        flight.setAircraftIdentifier(aircraft.identifier);
+        flight.setDepartureAirport(aircraft.origin.getIdentifier());
+        flight.setDepartureTime(new Date(aircraft.takeoffTime));
+        flight.setArrivalAirport(aircraft.destination.getIdentifier());
+        flight.setArrivalTime(new Date(time));
+        groundTruth.add(flight);
+    }
+
+    /**
+     * Picks a destination (preferably between MIN_LEG_DISTANCE and MAX_LEG_DISTANCE away) and cruise altitude.
+     */
+    private void chooseDestination(SimulatedAircraft aircraft) {
+        GeoCoordinate origin = aircraft.origin.getGeoCoordinate();
+        Airport destination = null;
+        double distance = 0D;
+        for (int attempt = 0; attempt < DESTINATION_ATTEMPTS; attempt++) {
+            Airport candidate = airports[random.nextInt(airports.length)];
+            if (candidate == aircraft.origin) continue;
+            double candidateDistance = origin.getDistanceTo(candidate.getGeoCoordinate());
+            destination = candidate;
+            distance = candidateDistance;
+            if (candidateDistance >= MIN_LEG_DISTANCE && candidateDistance <= MAX_LEG_DISTANCE) break;
+        }
+        if (destination == null) destination = aircraft.origin;
+
+        aircraft.destination = destination;
+        aircraft.legDistance = distance;
+        aircraft.distanceFlown = 0D;
+        aircraft.heading = origin.getBearingTo(destination.getGeoCoordinate());
+        aircraft.cruiseAltitude = MIN_CRUISE_ALTITUDE + random.nextDouble() * (MAX_CRUISE_ALTITUDE - MIN_CRUISE_ALTITUDE);
+    }
+
+    // Moves the aircraft along its leg. Positions are interpolated linearly, which is close enough here.
+    private static void fly(SimulatedAircraft aircraft, double speed, double elapsedMinutes) {
+        aircraft.speed = speed;
+        aircraft.distanceFlown = Math.min(aircraft.legDistance,
+                aircraft.distanceFlown + speed * MILES_PER_KNOT_HOUR * elapsedMinutes / 60D);
+
+        double fraction = (aircraft.legDistance == 0) ? 1D : aircraft.distanceFlown / aircraft.legDistance;
+        aircraft.latitude = aircraft.origin.getLatitude() +
+                (aircraft.destination.getLatitude() - aircraft.origin.getLatitude()) * fraction;
+        aircraft.longitude = aircraft.origin.getLongitude() +
+                (aircraft.destination.getLongitude() - aircraft.origin.getLongitude()) * fraction;
+    }
+
+    private static double getRemainingDistance(SimulatedAircraft aircraft) {
+        return aircraft.legDistance - aircraft.distanceFlown;
+    }
+
+    // Distance (miles) needed to descend from the current altitude to the destination
+    private static double getDescentDistance(SimulatedAircraft aircraft) {
+        double height = aircraft.altitude - aircraft.destination.getElevation();
+        return height / DESCENT_RATE / 60D * DESCENT_SPEED * MILES_PER_KNOT_HOUR;
+    }
+
+    private long randomMinutes(int min, int max) {
+        return (min + (long) (random.nextDouble() * (max - min))) * 60 * 1000L;
+    }
+}
@@ -0,0 +1,133 @@
+package com.paragonintel.codingexercise.Store;
+
+import com.paragonintel.codingexercise.Flight.Flight;
+import com.paragonintel.codingexercise.Flight.PlaneTrackerListener;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class holds completed Flights in memory, indexed so that questions like
+ * "arrivals at KHBE between 14:00 and 15:00" or "all legs for aircraft X this week" can be answered
+ * in log(n) time without rescanning every flight. It is fed by registering it as a listener on each
+ * PlaneTracker, and queries are safe to run from other threads while events are still being ingested.
+ */
+public class FlightStore implements PlaneTrackerListener {
+
+    private final List<Flight> flights; // All stored flights, where the list index is the flight ID
+    private final Map<String, FlightTimeIndex> departuresByAirport; // Indexed by departure time
+    private final Map<String, FlightTimeIndex> arrivalsByAirport; // Indexed by arrival time
+    private final Map<String, FlightTimeIndex> flightsByAircraft; // Indexed by departure (or arrival) time
+
+    // Queries take the read lock, so they can run in parallel with each other but not with an insert
+    private final ReadWriteLock lock;
+
+    public FlightStore() {
+        this.flights = new ArrayList<>();
+        this.departuresByAirport = new HashMap<>();
+        this.arrivalsByAirport = new HashMap<>();
+        this.flightsByAircraft = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public void onFlightCompleted(Flight flight) {
+        addFlight(flight);
+    }
+
+    /**
+     * Adds a flight to the store, and indexes it by whichever airports/times it has available.
+     * @param flight The Flight to store.
+     */
+    public void addFlight(Flight flight) {
+        if (flight == null) return;
+
+        lock.writeLock().lock();
+        try {
+            int flightId = flights.size();
+            flights.add(flight);
+
+            Date departureTime = flight.getDepartureTime();
+            Date arrivalTime = flight.getArrivalTime();
+
+            if (flight.getDepartureAirport() != null && departureTime != null) {
+                getOrCreateIndex(departuresByAirport, flight.getDepartureAirport())
+                        .add(departureTime.getTime(), flightId);
+            }
+
+            if (flight.getArrivalAirport() != null && arrivalTime != null) {
+                getOrCreateIndex(arrivalsByAirport, flight.getArrivalAirport())
+                        .add(arrivalTime.getTime(), flightId);
+            }
+
+            // Flights without a known departure are placed on the aircraft's timeline by their arrival
+            Date aircraftTime = (departureTime != null) ? departureTime : arrivalTime;
+            if (flight.getAircraftIdentifier() != null && aircraftTime != null) {
+                getOrCreateIndex(flightsByAircraft, flight.getAircraftIdentifier())
+                        .add(aircraftTime.getTime(), flightId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the flights which departed from the airport in the range [startTime, endTime),
+     * ordered by departure time.
+     */
+    public List<Flight> getDeparturesFrom(String airportId, Date startTime, Date endTime) {
+        return query(departuresByAirport, airportId, startTime, endTime);
+    }
+
+    /**
+     * Returns the flights which arrived at the airport in the range [startTime, endTime),
+     * ordered by arrival time.
+     */
+    public List<Flight> getArrivalsAt(String airportId, Date startTime, Date endTime) {
+        return query(arrivalsByAirport, airportId, startTime, endTime);
+    }
+
+    /**
+     * Returns the flights for the aircraft in the range [startTime, endTime), ordered by departure
+     * time. Flights with an unknown departure time are matched on their arrival time instead.
+     */
+    public List<Flight> getFlightsForAircraft(String aircraftId, Date startTime, Date endTime) {
+        return query(flightsByAircraft, aircraftId, startTime, endTime);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return flights.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Flight> query(Map<String, FlightTimeIndex> indexes, String key, Date startTime, Date endTime) {
+        List<Flight> results = new ArrayList<>();
+        if (key == null || startTime == null || endTime == null) return results;
+
+        lock.readLock().lock();
+        try {
+            FlightTimeIndex index = indexes.get(key);
+            if (index == null) return results;
+
+            for (int flightId : index.query(startTime.getTime(), endTime.getTime())) {
+                results.add(flights.get(flightId));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static FlightTimeIndex getOrCreateIndex(Map<String, FlightTimeIndex> indexes, String key) {
+        return indexes.computeIfAbsent(key, k -> new FlightTimeIndex());
+    }
+}
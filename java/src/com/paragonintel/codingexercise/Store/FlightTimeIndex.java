@@ -0,0 +1,194 @@
+package com.paragonintel.codingexercise.Store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class indexes flight IDs by a timestamp, so that all flights within a time range can be
+ * found in log(n) time. Entries are kept in sorted runs of primitive arrays: a small 'pending' run
+ * that new entries are insertion-sorted into (which starts out tiny, and grows up to PENDING_CAPACITY),
+ * and a list of immutable merged runs. Once the pending run fills up, it becomes a merged run of its
+ * own, and runs of similar size are then merged together (like carrying in a binary counter), so each
+ * merged run is at least twice the size of the next newer one. Each entry is therefore only copied
+ * O(log n) times over the life of the index, and a query only has to search O(log n) runs.
+ *
+ * This class is not thread-safe on its own; FlightStore guards access to it.
+ */
+class FlightTimeIndex {
+
+    // Max number of entries held in the pending run before it is merged
+    private static final int PENDING_CAPACITY = 256;
+
+    // Initial size of the pending arrays, which double as needed up to PENDING_CAPACITY. Most keys
+    // (e.g. an aircraft) only ever hold a handful of entries, so we don't allocate the full run up front.
+    private static final int INITIAL_PENDING_CAPACITY = 4;
+
+    // An immutable, sorted run of entries
+    private static class Run {
+        final long[] times;
+        final int[] ids;
+
+        Run(long[] times, int[] ids) {
+            this.times = times;
+            this.ids = ids;
+        }
+
+        int size() {
+            return times.length;
+        }
+    }
+
+    private final List<Run> runs; // Merged runs, oldest (and largest) first
+    private int mergedSize;
+
+    private long[] pendingTimes;
+    private int[] pendingIds;
+    private int pendingSize;
+
+    FlightTimeIndex() {
+        runs = new ArrayList<>();
+        mergedSize = 0;
+
+        pendingTimes = new long[INITIAL_PENDING_CAPACITY];
+        pendingIds = new int[INITIAL_PENDING_CAPACITY];
+        pendingSize = 0;
+    }
+
+    int size() {
+        return mergedSize + pendingSize;
+    }
+
+    /**
+     * Adds a flight ID to the index. Entries with equal times are kept in insertion order.
+     * @param time Timestamp (ms) to index the flight by.
+     * @param flightId ID of the flight within the FlightStore.
+     */
+    void add(long time, int flightId) {
+        if (pendingSize == pendingTimes.length) {
+            int newCapacity = Math.min(pendingTimes.length * 2, PENDING_CAPACITY);
+            pendingTimes = Arrays.copyOf(pendingTimes, newCapacity);
+            pendingIds = Arrays.copyOf(pendingIds, newCapacity);
+        }
+
+        // Insertion-sort into the pending run, which is bounded in size
+        int position = upperBound(pendingTimes, pendingSize, time);
+        System.arraycopy(pendingTimes, position, pendingTimes, position + 1, pendingSize - position);
+        System.arraycopy(pendingIds, position, pendingIds, position + 1, pendingSize - position);
+        pendingTimes[position] = time;
+        pendingIds[position] = flightId;
+        pendingSize += 1;
+
+        if (pendingSize == PENDING_CAPACITY) mergePending();
+    }
+
+    /**
+     * Finds all flight IDs with a time in the range [startTime, endTime), ordered by time.
+     * @param startTime Inclusive start of the range (ms).
+     * @param endTime Exclusive end of the range (ms).
+     * @return Array of matching flight IDs.
+     */
+    int[] query(long startTime, long endTime) {
+        if (endTime <= startTime) return new int[0];
+
+        // Find the matching slice of each run, with the pending run last since it's the newest
+        int runCount = runs.size() + 1;
+        long[][] times = new long[runCount][];
+        int[][] ids = new int[runCount][];
+        int[] positions = new int[runCount];
+        int[] ends = new int[runCount];
+        int resultCount = 0;
+        for (int i = 0; i < runCount; i++) {
+            boolean pending = (i == runs.size());
+            times[i] = pending ? pendingTimes : runs.get(i).times;
+            ids[i] = pending ? pendingIds : runs.get(i).ids;
+            int size = pending ? pendingSize : runs.get(i).size();
+            positions[i] = lowerBound(times[i], size, startTime);
+            ends[i] = lowerBound(times[i], size, endTime);
+            resultCount += ends[i] - positions[i];
+        }
+
+        // Merge the slices, so the results come back in time order. There are only O(log n) runs,
+        // so just scan for the smallest head each time. Ties go to the older run, which keeps
+        // equal times in insertion order.
+        int[] results = new int[resultCount];
+        for (int r = 0; r < resultCount; r++) {
+            int next = -1;
+            for (int i = 0; i < runCount; i++) {
+                if (positions[i] == ends[i]) continue;
+                if (next < 0 || times[i][positions[i]] < times[next][positions[next]]) next = i;
+            }
+            results[r] = ids[next][positions[next]++];
+        }
+        return results;
+    }
+
+    /**
+     * Turns the pending run into a merged run, then merges the newest runs together for as long as
+     * the one before it is no bigger than the newest one.
+     */
+    private void mergePending() {
+        Run run = new Run(
+                Arrays.copyOf(pendingTimes, pendingSize),
+                Arrays.copyOf(pendingIds, pendingSize)
+        );
+        mergedSize += pendingSize;
+        pendingSize = 0;
+
+        while (!runs.isEmpty() && runs.get(runs.size() - 1).size() <= run.size()) {
+            run = merge(runs.remove(runs.size() - 1), run);
+        }
+        runs.add(run);
+    }
+
+    /**
+     * Merges 2 runs into a new one. On equal times, entries from the older run come first.
+     */
+    private static Run merge(Run older, Run newer) {
+        int size = older.size() + newer.size();
+        long[] times = new long[size];
+        int[] ids = new int[size];
+
+        int o = 0, n = 0, r = 0;
+        while (o < older.size() && n < newer.size()) {
+            if (older.times[o] <= newer.times[n]) {
+                times[r] = older.times[o];
+                ids[r++] = older.ids[o++];
+            } else {
+                times[r] = newer.times[n];
+                ids[r++] = newer.ids[n++];
+            }
+        }
+        while (o < older.size()) {
+            times[r] = older.times[o];
+            ids[r++] = older.ids[o++];
+        }
+        while (n < newer.size()) {
+            times[r] = newer.times[n];
+            ids[r++] = newer.ids[n++];
+        }
+        return new Run(times, ids);
+    }
+
+    // Returns the first position whose time is >= the given time
+    private static int lowerBound(long[] times, int size, long time) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Returns the first position whose time is > the given time
+    private static int upperBound(long[] times, int size, long time) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
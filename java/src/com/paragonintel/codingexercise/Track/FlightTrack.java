@@ -0,0 +1,67 @@
+package com.paragonintel.codingexercise.Track;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * Immutable, compressed path of a single flight: timestamps, positions, altitudes and speeds,
+ * delta + varint encoded by TrackEncoder. Points are decoded on demand via forEachPoint().
+ * When serialized to JSON, the track is written out as decoded [time, lat, long, alt, speed] arrays.
+ */
+@JsonAdapter(FlightTrackTypeAdapter.class)
+public final class FlightTrack {
+
+    private final byte[] encoded;
+    private final int pointCount;
+
+    FlightTrack(byte[] encoded, int pointCount) {
+        this.encoded = encoded;
+        this.pointCount = pointCount;
+    }
+
+    public int getPointCount() {
+        return this.pointCount;
+    }
+
+    // Size of the encoded track, in bytes
+    public int getEncodedSize() {
+        return this.encoded.length;
+    }
+
+    /**
+     * Decodes the track, passing each point to the visitor in order.
+     * @param visitor Receives each point's values.
+     */
+    public void forEachPoint(TrackPointVisitor visitor) {
+        long time = 0, latitude = 0, longitude = 0, altitude = 0, speed = 0;
+        int[] position = new int[1];
+
+        for (int i = 0; i < pointCount; i++) {
+            time += readDelta(encoded, position);
+            latitude += readDelta(encoded, position);
+            longitude += readDelta(encoded, position);
+            altitude += readDelta(encoded, position);
+            speed += readDelta(encoded, position);
+
+            visitor.visit(
+                    time,
+                    latitude / TrackEncoder.COORDINATE_SCALE,
+                    longitude / TrackEncoder.COORDINATE_SCALE,
+                    (altitude == TrackEncoder.MISSING) ? Double.NaN : altitude,
+                    (speed == TrackEncoder.MISSING) ? Double.NaN : speed / TrackEncoder.SPEED_SCALE
+            );
+        }
+    }
+
+    // Reads the zig-zag varint at position[0], and advances position[0] past it
+    private static long readDelta(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
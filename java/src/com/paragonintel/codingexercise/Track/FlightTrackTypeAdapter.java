@@ -0,0 +1,81 @@
+package com.paragonintel.codingexercise.Track;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Gson adapter which writes a FlightTrack as an array of decoded points, each of which is a
+ * [timestamp (ms), latitude, longitude, altitude, speed] array (missing values are null).
+ * Reading re-encodes the points, so a track survives a round trip through JSON unchanged.
+ */
+class FlightTrackTypeAdapter extends TypeAdapter<FlightTrack> {
+
+    @Override
+    public void write(JsonWriter writer, FlightTrack track) throws IOException {
+        if (track == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginArray();
+        try {
+            track.forEachPoint((timestamp, latitude, longitude, altitude, speed) -> {
+                try {
+                    writer.beginArray();
+                    writer.value(timestamp);
+                    writer.value(latitude);
+                    writer.value(longitude);
+                    writeNullable(writer, altitude);
+                    writeNullable(writer, speed);
+                    writer.endArray();
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            });
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+        writer.endArray();
+    }
+
+    @Override
+    public FlightTrack read(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        TrackEncoder encoder = new TrackEncoder();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginArray();
+            long timestamp = reader.nextLong();
+            double latitude = reader.nextDouble();
+            double longitude = reader.nextDouble();
+            double altitude = readNullable(reader);
+            double speed = readNullable(reader);
+            reader.endArray();
+            encoder.append(timestamp, latitude, longitude, altitude, speed);
+        }
+        reader.endArray();
+        return new FlightTrack(encoder.toByteArray(), encoder.getPointCount());
+    }
+
+    private static void writeNullable(JsonWriter writer, double value) throws IOException {
+        if (Double.isNaN(value)) writer.nullValue();
+        else writer.value(value);
+    }
+
+    private static double readNullable(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return Double.NaN;
+        }
+        return reader.nextDouble();
+    }
+}
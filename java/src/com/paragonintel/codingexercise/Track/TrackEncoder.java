@@ -0,0 +1,105 @@
+package com.paragonintel.codingexercise.Track;
+
+import java.util.Arrays;
+
+/**
+ * This class packs track points into a compact byte stream. Each field is
+ * quantized to an integer, stored as the difference from the previous point's value, zig-zag
+ * encoded (so small negative differences stay small), and written as a varint. Consecutive ADS-B
+ * points are close together, so most fields only take 1-2 bytes per point.
+ *
+ * Quantization: timestamps in ms, lat/long in 1e-5 degrees (~1m), altitude in ft, speed in 0.1 knots.
+ */
+class TrackEncoder {
+
+    static final double COORDINATE_SCALE = 1e5;
+    static final double SPEED_SCALE = 10D;
+
+    // Quantized value stored for a missing altitude/speed
+    static final long MISSING = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] bytes;
+    private int size;
+    private int pointCount;
+
+    private long previousTime;
+    private long previousLatitude;
+    private long previousLongitude;
+    private long previousAltitude;
+    private long previousSpeed;
+
+    TrackEncoder() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+        clear();
+    }
+
+    private TrackEncoder(TrackEncoder other) {
+        this.bytes = Arrays.copyOf(other.bytes, Math.max(other.size, INITIAL_CAPACITY));
+        this.size = other.size;
+        this.pointCount = other.pointCount;
+        this.previousTime = other.previousTime;
+        this.previousLatitude = other.previousLatitude;
+        this.previousLongitude = other.previousLongitude;
+        this.previousAltitude = other.previousAltitude;
+        this.previousSpeed = other.previousSpeed;
+    }
+
+    void clear() {
+        size = 0;
+        pointCount = 0;
+        previousTime = 0;
+        previousLatitude = 0;
+        previousLongitude = 0;
+        previousAltitude = 0;
+        previousSpeed = 0;
+    }
+
+    void append(long timestamp, double latitude, double longitude, double altitude, double speed) {
+        long quantizedLatitude = Math.round(latitude * COORDINATE_SCALE);
+        long quantizedLongitude = Math.round(longitude * COORDINATE_SCALE);
+        long quantizedAltitude = Double.isNaN(altitude) ? MISSING : Math.round(altitude);
+        long quantizedSpeed = Double.isNaN(speed) ? MISSING : Math.round(speed * SPEED_SCALE);
+
+        writeVarint(zigZag(timestamp - previousTime));
+        writeVarint(zigZag(quantizedLatitude - previousLatitude));
+        writeVarint(zigZag(quantizedLongitude - previousLongitude));
+        writeVarint(zigZag(quantizedAltitude - previousAltitude));
+        writeVarint(zigZag(quantizedSpeed - previousSpeed));
+
+        previousTime = timestamp;
+        previousLatitude = quantizedLatitude;
+        previousLongitude = quantizedLongitude;
+        previousAltitude = quantizedAltitude;
+        previousSpeed = quantizedSpeed;
+        pointCount += 1;
+    }
+
+    int getPointCount() {
+        return this.pointCount;
+    }
+
+    // Returns an independent copy, so more points can be added to it without affecting this encoder
+    TrackEncoder copy() {
+        return new TrackEncoder(this);
+    }
+
+    // Returns the encoded bytes, trimmed to size
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private void writeVarint(long value) {
+        if (size + 10 > bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        while ((value & ~0x7FL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,10 @@
+package com.paragonintel.codingexercise.Track;
+
+/**
+ * Receives the decoded points of a FlightTrack one at a time, as primitives, so that a track
+ * can be read without allocating an object per point. Missing altitudes/speeds are NaN.
+ */
+@FunctionalInterface
+public interface TrackPointVisitor {
+    void visit(long timestamp, double latitude, double longitude, double altitude, double speed);
+}
@@ -0,0 +1,191 @@
+package com.paragonintel.codingexercise.Track;
+
+import com.paragonintel.codingexercise.Events.AdsbEvent;
+import com.paragonintel.codingexercise.Location.GeoCoordinate;
+
+/**
+ * This class records the path of the current flight in a compact form. Every
+ * event with a location becomes a track point (altitude/speed are carried forward from earlier events
+ * when missing), and points are written to a TrackEncoder as they are accepted.
+ *
+ * If a tolerance is configured, the track is simplified as it streams in, similar to Douglas-Peucker:
+ * points are held back while a straight line from the last written point to the newest point passes
+ * within the tolerance of all of them. Once that's no longer true, the last held point is written and
+ * becomes the start of the next line. At most MAX_PENDING_POINTS are held back at a time.
+ */
+public class TrackRecorder {
+
+    private static final int MAX_PENDING_POINTS = 32;
+    private static final double DEFAULT_ALTITUDE_TOLERANCE_FEET = 250D;
+    private static final double MILES_PER_DEGREE = GeoCoordinate.EARTH_RADIUS_MILES * Math.PI / 180D;
+
+    private final double toleranceMiles; // Max horizontal distance a dropped point can be off the line
+    private final double altitudeToleranceFeet; // Max vertical distance a dropped point can be off the line
+    private final TrackEncoder encoder;
+
+    // The last point written to the encoder
+    private boolean hasAnchor;
+    private long anchorTime;
+    private double anchorLatitude;
+    private double anchorLongitude;
+    private double anchorAltitude;
+    private double anchorSpeed;
+
+    // Points received since the anchor, which haven't been written yet
+    private final long[] pendingTimes;
+    private final double[] pendingLatitudes;
+    private final double[] pendingLongitudes;
+    private final double[] pendingAltitudes;
+    private final double[] pendingSpeeds;
+    private int pendingCount;
+
+    // Latest known altitude/speed, for events which don't include them
+    private double latestAltitude;
+    private double latestSpeed;
+
+    /**
+     * Creates a TrackRecorder which keeps every point.
+     */
+    public TrackRecorder() {
+        this(0D, 0D);
+    }
+
+    /**
+     * Creates a TrackRecorder which simplifies the track to the given horizontal tolerance, and a
+     * vertical tolerance of DEFAULT_ALTITUDE_TOLERANCE_FEET.
+     * @param toleranceMiles Horizontal tolerance, in miles. Zero (or less) disables simplification.
+     */
+    public TrackRecorder(double toleranceMiles) {
+        this(toleranceMiles, DEFAULT_ALTITUDE_TOLERANCE_FEET);
+    }
+
+    /**
+     * Creates a TrackRecorder which drops points that are within the given tolerances of the simplified path.
+     * @param toleranceMiles Horizontal tolerance, in miles. Zero (or less) disables simplification.
+     * @param altitudeToleranceFeet Vertical tolerance, in feet.
+     */
+    public TrackRecorder(double toleranceMiles, double altitudeToleranceFeet) {
+        this.toleranceMiles = toleranceMiles;
+        this.altitudeToleranceFeet = altitudeToleranceFeet;
+        this.encoder = new TrackEncoder();
+
+        this.pendingTimes = new long[MAX_PENDING_POINTS];
+        this.pendingLatitudes = new double[MAX_PENDING_POINTS];
+        this.pendingLongitudes = new double[MAX_PENDING_POINTS];
+        this.pendingAltitudes = new double[MAX_PENDING_POINTS];
+        this.pendingSpeeds = new double[MAX_PENDING_POINTS];
+
+        this.latestAltitude = Double.NaN;
+        this.latestSpeed = Double.NaN;
+    }
+
+    /**
+     * Adds the event to the track, if it has a location.
+     * @param event The next AdsbEvent for the plane being recorded.
+     */
+    public void processEvent(AdsbEvent event) {
+        if (event == null) return;
+        if (!event.getAltitude().isNaN()) latestAltitude = event.getAltitude();
+        if (!event.getSpeed().isNaN()) latestSpeed = event.getSpeed();
+        if (event.getLatitude().isNaN() || event.getLongitude().isNaN()) return;
+
+        addPoint(event.getTimestamp().getTime(), event.getLatitude(), event.getLongitude(), latestAltitude, latestSpeed);
+    }
+
+    /**
+     * Discards the recorded track, except for the most recent point, which becomes the start of the new track.
+     * This is invoked when the plane takes off or lands, the same as FlightStatTracker.reset().
+     */
+    public void reset() {
+        if (!hasAnchor) return;
+
+        int last = pendingCount - 1;
+        long time = (last >= 0) ? pendingTimes[last] : anchorTime;
+        double latitude = (last >= 0) ? pendingLatitudes[last] : anchorLatitude;
+        double longitude = (last >= 0) ? pendingLongitudes[last] : anchorLongitude;
+        double altitude = (last >= 0) ? pendingAltitudes[last] : anchorAltitude;
+        double speed = (last >= 0) ? pendingSpeeds[last] : anchorSpeed;
+
+        encoder.clear();
+        hasAnchor = false;
+        pendingCount = 0;
+        addPoint(time, latitude, longitude, altitude, speed);
+    }
+
+    /**
+     * Returns the track recorded so far (including the most recent point), or null if there are no points.
+     */
+    public FlightTrack getTrack() {
+        if (!hasAnchor) return null;
+
+        TrackEncoder trackEncoder = encoder;
+        if (pendingCount > 0) {
+            int last = pendingCount - 1;
+            trackEncoder = encoder.copy();
+            trackEncoder.append(pendingTimes[last], pendingLatitudes[last], pendingLongitudes[last],
+                    pendingAltitudes[last], pendingSpeeds[last]);
+        }
+        return new FlightTrack(trackEncoder.toByteArray(), trackEncoder.getPointCount());
+    }
+
+    private void addPoint(long time, double latitude, double longitude, double altitude, double speed) {
+        // The first point (and every point, if we aren't simplifying) is written straight away
+        if (!hasAnchor || toleranceMiles <= 0) {
+            writeAnchor(time, latitude, longitude, altitude, speed);
+            return;
+        }
+
+        // If the line to this point no longer covers the held-back points, keep the last one
+        if (pendingCount == MAX_PENDING_POINTS || (pendingCount > 0 && !pendingWithinTolerance(latitude, longitude, altitude))) {
+            int last = pendingCount - 1;
+            writeAnchor(pendingTimes[last], pendingLatitudes[last], pendingLongitudes[last],
+                    pendingAltitudes[last], pendingSpeeds[last]);
+        }
+
+        pendingTimes[pendingCount] = time;
+        pendingLatitudes[pendingCount] = latitude;
+        pendingLongitudes[pendingCount] = longitude;
+        pendingAltitudes[pendingCount] = altitude;
+        pendingSpeeds[pendingCount] = speed;
+        pendingCount += 1;
+    }
+
+    private void writeAnchor(long time, double latitude, double longitude, double altitude, double speed) {
+        encoder.append(time, latitude, longitude, altitude, speed);
+        hasAnchor = true;
+        anchorTime = time;
+        anchorLatitude = latitude;
+        anchorLongitude = longitude;
+        anchorAltitude = altitude;
+        anchorSpeed = speed;
+        pendingCount = 0;
+    }
+
+    /**
+     * Checks whether every pending point is within tolerance of the line from the anchor to the given point.
+     * Distances are computed on a flat projection around the anchor, which is accurate enough over the
+     * short distances between points.
+     */
+    private boolean pendingWithinTolerance(double latitude, double longitude, double altitude) {
+        double longitudeScale = MILES_PER_DEGREE * Math.cos(Math.toRadians(anchorLatitude));
+        double endX = (longitude - anchorLongitude) * longitudeScale;
+        double endY = (latitude - anchorLatitude) * MILES_PER_DEGREE;
+        double lengthSquared = endX * endX + endY * endY;
+
+        for (int i = 0; i < pendingCount; i++) {
+            double x = (pendingLongitudes[i] - anchorLongitude) * longitudeScale;
+            double y = (pendingLatitudes[i] - anchorLatitude) * MILES_PER_DEGREE;
+
+            // Position along the line (0 = anchor, 1 = new point) of the closest point to this one
+            double t = (lengthSquared == 0) ? 0 : Math.max(0, Math.min(1, (x * endX + y * endY) / lengthSquared));
+            double offsetX = x - t * endX;
+            double offsetY = y - t * endY;
+            if (offsetX * offsetX + offsetY * offsetY > toleranceMiles * toleranceMiles) return false;
+
+            // NaN altitudes compare false here, so they never force a point to be kept
+            double lineAltitude = anchorAltitude + t * (altitude - anchorAltitude);
+            if (Math.abs(pendingAltitudes[i] - lineAltitude) > altitudeToleranceFeet) return false;
+        }
+        return true;
+    }
+}